@@ -0,0 +1,35 @@
+package com.hackathon.blackrock.benchmark;
+
+import com.hackathon.blackrock.config.ParallelConfig;
+import com.hackathon.blackrock.config.TaxProperties;
+import com.hackathon.blackrock.service.impl.GrowthFactorServiceImpl;
+import com.hackathon.blackrock.service.impl.MetricsServiceImpl;
+import com.hackathon.blackrock.service.impl.PeriodRuleServiceImpl;
+import com.hackathon.blackrock.service.impl.ReturnsCalculationServiceImpl;
+import com.hackathon.blackrock.service.impl.TaxRegimeServiceImpl;
+import com.hackathon.blackrock.service.impl.TracingServiceImpl;
+import com.hackathon.blackrock.service.impl.TransactionFilterServiceImpl;
+import com.hackathon.blackrock.service.impl.TransactionParserServiceImpl;
+import com.hackathon.blackrock.service.impl.TransactionValidatorServiceImpl;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * The services under benchmark, wired as the application wires them (default properties,
+ * fork-join above the parallel threshold) but without the web layer or the database.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static AnnotationConfigApplicationContext start() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(ParallelConfig.class, TaxProperties.class,
+                MetricsServiceImpl.class, TracingServiceImpl.class,
+                PeriodRuleServiceImpl.class, TaxRegimeServiceImpl.class, GrowthFactorServiceImpl.class,
+                TransactionParserServiceImpl.class, TransactionValidatorServiceImpl.class,
+                TransactionFilterServiceImpl.class, ReturnsCalculationServiceImpl.class);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hackathon.blackrock.benchmark;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.FilterRequest;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.FilterResponse;
+import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.service.ReturnsCalculationService;
+import com.hackathon.blackrock.service.TransactionFilterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter and returns across transaction and period counts; {@code periods} is the number of
+ * q, p and k periods each. Compiled period rules are cached across requests, as in the
+ * application, so these measure the per-request path rather than rule compilation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PeriodBenchmarks {
+
+    @Param({"1000", "100000", "1000000"})
+    private int transactions;
+
+    @Param({"1", "100", "10000"})
+    private int periods;
+
+    private AnnotationConfigApplicationContext context;
+    private TransactionFilterService filter;
+    private ReturnsCalculationService returns;
+
+    private FilterRequest filterRequest;
+    private ReturnsRequest returnsRequest;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        filter = context.getBean(TransactionFilterService.class);
+        returns = context.getBean(ReturnsCalculationService.class);
+
+        List<Transaction> rows = SyntheticData.transactions(transactions, 3);
+        List<QPeriod> q = SyntheticData.qPeriods(periods, transactions, 4);
+        List<PPeriod> p = SyntheticData.pPeriods(periods, transactions, 5);
+        List<KPeriod> k = SyntheticData.kPeriods(periods, transactions, 6);
+
+        filterRequest = new FilterRequest();
+        filterRequest.setWage(50_000);
+        filterRequest.setQ(q);
+        filterRequest.setP(p);
+        filterRequest.setK(k);
+        filterRequest.setTransactions(rows);
+
+        returnsRequest = new ReturnsRequest();
+        returnsRequest.setAge(29);
+        returnsRequest.setWage(50_000);
+        returnsRequest.setInflation(5.5);
+        returnsRequest.setQ(q);
+        returnsRequest.setP(p);
+        returnsRequest.setK(k);
+        returnsRequest.setTransactions(rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FilterResponse filter() {
+        return filter.filter(filterRequest);
+    }
+
+    @Benchmark
+    public ReturnsResponse returnsNps() {
+        return returns.calculate(returnsRequest, true);
+    }
+
+    @Benchmark
+    public ReturnsResponse returnsIndex() {
+        return returns.calculate(returnsRequest, false);
+    }
+}
@@ -0,0 +1,130 @@
+package com.hackathon.blackrock.benchmark;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.ExpenseRequest;
+import com.hackathon.blackrock.utility.Money;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded request data for the benchmarks and the load test. Transactions are a minute apart
+ * from {@link #START}; periods are spread over the same span, so every period matches some
+ * rows. By default about 1% of transactions are negative, 1% repeat the previous date, and
+ * each period covers up to a tenth of the span.
+ */
+public final class SyntheticData {
+
+    public static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private SyntheticData() {
+    }
+
+    public static List<ExpenseRequest> expenses(int count, long seed) {
+        Random random = new Random(seed);
+        List<ExpenseRequest> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExpenseRequest expense = new ExpenseRequest();
+            expense.setDate(START.plusMinutes(i));
+            expense.setAmount(amount(random));
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    /** Parsed transactions, as the validator, filter and returns endpoints receive them. */
+    public static List<Transaction> transactions(int count, long seed) {
+        return transactions(count, seed, 0.01, 0.01);
+    }
+
+    /** Parsed transactions with the given fractions of negative amounts and repeated dates. */
+    public static List<Transaction> transactions(int count, long seed, double negativeRate, double duplicateRate) {
+        Random random = new Random(seed);
+        int negatives = (int) Math.round(negativeRate * 10_000);
+        int duplicates = negatives + (int) Math.round(duplicateRate * 10_000);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(10_000);
+            double amount = roll < negatives ? -amount(random) : amount(random);
+            long minor = Money.toMinor(amount);
+            boolean duplicate = roll >= negatives && roll < duplicates && i > 0;
+            transactions.add(Transaction.builder()
+                    .date(START.plusMinutes(duplicate ? i - 1 : i))
+                    .amount(amount)
+                    .ceiling(Money.toRupees(Money.ceiling(minor)))
+                    .remanent(Money.toRupees(Money.remanent(minor)))
+                    .build());
+        }
+        return transactions;
+    }
+
+    public static List<QPeriod> qPeriods(int count, int spanMinutes, long seed) {
+        return qPeriods(count, spanMinutes, seed, count / 20.0);
+    }
+
+    public static List<QPeriod> qPeriods(int count, int spanMinutes, long seed, double overlap) {
+        int maxLength = maxLength(count, spanMinutes, overlap);
+        Random random = new Random(seed);
+        List<QPeriod> periods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = start(random, spanMinutes);
+            periods.add(new QPeriod(random.nextInt(100), start, end(random, start, maxLength)));
+        }
+        return periods;
+    }
+
+    public static List<PPeriod> pPeriods(int count, int spanMinutes, long seed) {
+        return pPeriods(count, spanMinutes, seed, count / 20.0);
+    }
+
+    public static List<PPeriod> pPeriods(int count, int spanMinutes, long seed, double overlap) {
+        int maxLength = maxLength(count, spanMinutes, overlap);
+        Random random = new Random(seed);
+        List<PPeriod> periods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = start(random, spanMinutes);
+            periods.add(new PPeriod(random.nextInt(50), start, end(random, start, maxLength)));
+        }
+        return periods;
+    }
+
+    public static List<KPeriod> kPeriods(int count, int spanMinutes, long seed) {
+        return kPeriods(count, spanMinutes, seed, count / 20.0);
+    }
+
+    public static List<KPeriod> kPeriods(int count, int spanMinutes, long seed, double overlap) {
+        int maxLength = maxLength(count, spanMinutes, overlap);
+        Random random = new Random(seed);
+        List<KPeriod> periods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = start(random, spanMinutes);
+            periods.add(new KPeriod(start, end(random, start, maxLength)));
+        }
+        return periods;
+    }
+
+    private static double amount(Random random) {
+        return random.nextInt(5_000_000) / 100.0;
+    }
+
+    private static LocalDateTime start(Random random, int spanMinutes) {
+        return START.plusMinutes(random.nextInt(Math.max(spanMinutes, 1)));
+    }
+
+    /**
+     * Longest period such that, with lengths uniform below it, {@code overlap} periods cover
+     * an average instant of the span.
+     */
+    private static int maxLength(int count, int spanMinutes, double overlap) {
+        return count == 0 ? 1 : Math.max((int) Math.round(2 * overlap * spanMinutes / count), 1);
+    }
+
+    private static LocalDateTime end(Random random, LocalDateTime start, int maxLength) {
+        return start.plusMinutes(random.nextInt(maxLength));
+    }
+}
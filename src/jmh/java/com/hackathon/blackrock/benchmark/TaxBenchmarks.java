@@ -0,0 +1,57 @@
+package com.hackathon.blackrock.benchmark;
+
+import com.hackathon.blackrock.utility.TaxCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Tax and tax benefit per call, over incomes spread across every slab. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TaxBenchmarks {
+
+    private static final int INCOMES = 1024;
+
+    private final double[] incomes = new double[INCOMES];
+    private final double[] invested = new double[INCOMES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        for (int i = 0; i < INCOMES; i++) {
+            incomes[i] = random.nextInt(3_000_000);
+            invested[i] = random.nextInt(300_000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INCOMES)
+    public double computeTax() {
+        double sum = 0;
+        for (double income : incomes) sum += TaxCalculator.computeTax(income);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INCOMES)
+    public double computeTaxBenefit() {
+        double sum = 0;
+        for (int i = 0; i < INCOMES; i++) sum += TaxCalculator.computeTaxBenefit(invested[i], incomes[i]);
+        return sum;
+    }
+}
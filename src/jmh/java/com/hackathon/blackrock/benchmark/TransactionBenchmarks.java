@@ -0,0 +1,71 @@
+package com.hackathon.blackrock.benchmark;
+
+import com.hackathon.blackrock.model.request.ExpenseRequest;
+import com.hackathon.blackrock.model.request.ValidatorRequest;
+import com.hackathon.blackrock.model.request.response.TransactionResponse;
+import com.hackathon.blackrock.model.request.response.ValidatorResponse;
+import com.hackathon.blackrock.service.TransactionParsingService;
+import com.hackathon.blackrock.service.TransactionValidatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Parser and validator, which do not depend on period rules. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TransactionBenchmarks {
+
+    @Param({"1000", "100000", "1000000"})
+    private int transactions;
+
+    private AnnotationConfigApplicationContext context;
+    private TransactionParsingService parser;
+    private TransactionValidatorService validator;
+
+    private List<ExpenseRequest> expenses;
+    private ValidatorRequest validatorRequest;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        parser = context.getBean(TransactionParsingService.class);
+        validator = context.getBean(TransactionValidatorService.class);
+
+        expenses = SyntheticData.expenses(transactions, 1);
+        validatorRequest = new ValidatorRequest();
+        validatorRequest.setWage(50_000);
+        validatorRequest.setTransactions(SyntheticData.transactions(transactions, 2));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse parse() {
+        return parser.parser(expenses);
+    }
+
+    @Benchmark
+    public ValidatorResponse validate() {
+        return validator.validate(validatorRequest);
+    }
+}
@@ -0,0 +1,254 @@
+package com.hackathon.blackrock.loadtest;
+
+import com.hackathon.blackrock.BlackrockApplication;
+import com.hackathon.blackrock.utility.LatencyHistogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the REST API.
+ *
+ * Requests are issued on a fixed schedule (Poisson or uniform arrivals at {@code rate} per
+ * second) whether or not earlier ones have completed, and each response time is measured
+ * from the moment the request was scheduled, not from when it was actually sent. A server
+ * that stalls therefore shows the full queueing delay it caused instead of silently slowing
+ * the client down (coordinated omission). Service time, measured from the actual send, is
+ * reported alongside for comparison.
+ *
+ * Requests the client drops because {@code max-outstanding} are already in flight are counted
+ * but kept out of the latency figures, since they never waited on the server. Requests still
+ * in flight when the drain {@code timeout} runs out are recorded as timeouts, with their
+ * latency taken at that deadline.
+ *
+ * Options are {@code key=value} arguments; anything starting with {@code --} is passed to
+ * the application, which is started in-process unless {@code target} names a running one:
+ * <pre>
+ * target=http://host:5477   rate=100        duration=30s   warmup=10s    arrivals=poisson|uniform
+ * mix=parse:1,validator:1,filter:1,nps:1,index:1            rows=1000     periods=10
+ * overlap=1.0               negatives=0.01  duplicates=0.01 distinct=32   seed=42
+ * max-outstanding=10000     timeout=30s     out=target/loadtest.txt
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final String API = "/blackrock/challenge/v1";
+
+    // statuses for requests that got no HTTP response
+    private static final int FAILED = -1;
+    private static final int TIMED_OUT = -2;
+
+    private final Map<String, String> options;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final Stats total = new Stats();
+    // requests sent and not yet answered; whoever removes an entry records it
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Expected key=value or --app.property=value, got " + arg);
+            }
+        }
+
+        ConfigurableApplicationContext app = null;
+        if (!options.containsKey("target")) {
+            appArgs.add(0, "--server.port=0");
+            app = SpringApplication.run(BlackrockApplication.class, appArgs.toArray(String[]::new));
+            options.put("target", "http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+        }
+        try {
+            new LoadTest(options).run();
+        } finally {
+            if (app != null) app.close();
+        }
+        System.exit(0);
+    }
+
+    private void run() throws IOException, InterruptedException {
+        String target = option("target", null) + API;
+        double rate = Double.parseDouble(option("rate", "100"));
+        long warmup = DurationStyle.detectAndParse(option("warmup", "10s")).toNanos();
+        long duration = DurationStyle.detectAndParse(option("duration", "30s")).toNanos();
+        boolean poisson = option("arrivals", "poisson").equals("poisson");
+        int maxOutstanding = Integer.parseInt(option("max-outstanding", "10000"));
+        Duration timeout = DurationStyle.detectAndParse(option("timeout", "30s"));
+        long seed = Long.parseLong(option("seed", "42"));
+
+        Workload workload = new Workload(mix(option("mix", "parse:1,validator:1,filter:1,nps:1,index:1")),
+                Integer.parseInt(option("rows", "1000")),
+                Integer.parseInt(option("periods", "10")),
+                Double.parseDouble(option("overlap", "1.0")),
+                Double.parseDouble(option("negatives", "0.01")),
+                Double.parseDouble(option("duplicates", "0.01")),
+                Integer.parseInt(option("distinct", "32")),
+                seed);
+        for (String operation : workload.operations()) stats.put(operation, new Stats());
+
+        ExecutorService callbacks = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(callbacks)
+                .build();
+
+        System.out.printf(Locale.ROOT, "%s: %.1f req/s %s arrivals, %ds warmup + %ds measured, options %s%n",
+                target, rate, poisson ? "poisson" : "uniform",
+                TimeUnit.NANOSECONDS.toSeconds(warmup), TimeUnit.NANOSECONDS.toSeconds(duration), options);
+
+        Random random = new Random(seed);
+        long requests = 0;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup;
+        long end = measureFrom + duration;
+        for (long scheduled = start; scheduled < end; scheduled += interval(random, rate, poisson)) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            String operation = workload.next(random);
+            boolean measured = scheduled >= measureFrom;
+            if (inFlight.size() >= maxOutstanding) {
+                // the client itself is saturated; count it rather than queue without bound
+                if (measured) {
+                    stats.get(operation).dropped.increment();
+                    total.dropped.increment();
+                }
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + Workload.PATHS.get(operation)))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(workload.body(operation, random)))
+                    .build();
+            long id = requests++;
+            InFlight sending = new InFlight(operation, scheduled, System.nanoTime(), measured);
+            inFlight.put(id, sending);
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                InFlight done = inFlight.remove(id);
+                if (done == null || !done.measured()) return;
+                int status = error == null ? response.statusCode()
+                        : error instanceof HttpTimeoutException || error.getCause() instanceof HttpTimeoutException
+                        ? TIMED_OUT : FAILED;
+                record(done, status, System.nanoTime());
+            });
+        }
+        long drainUntil = System.nanoTime() + timeout.toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < drainUntil) Thread.sleep(10);
+        for (Long id : inFlight.keySet()) {
+            InFlight unanswered = inFlight.remove(id);
+            if (unanswered != null && unanswered.measured()) record(unanswered, TIMED_OUT, drainUntil);
+        }
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+        callbacks.shutdownNow();
+
+        String report = report(seconds);
+        System.out.print(report);
+        String out = option("out", null);
+        if (out != null) Files.writeString(Path.of(out), report);
+    }
+
+    private void record(InFlight request, int status, long done) {
+        stats.get(request.operation()).record(done - request.scheduled(), done - request.sent(), status);
+        total.record(done - request.scheduled(), done - request.sent(), status);
+    }
+
+    private String report(double seconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT,
+                "%n%-10s %9s %9s %9s %7s %8s %8s %10s | %9s %9s %9s %9s %9s | %9s %9s%n",
+                "operation", "requests", "ok", "rejected", "errors", "timeouts", "dropped", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p50", "svc p99"));
+        stats.forEach((operation, s) -> s.append(out, operation, seconds));
+        total.append(out, "all", seconds);
+        out.append("latency is from the scheduled send time (corrected for coordinated omission); ")
+                .append("svc is from the actual send; rejected is 429/503; ")
+                .append("dropped were never sent (max-outstanding) and are not in the latencies\n");
+        return out.toString();
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static Map<String, Double> mix(String spec) {
+        Map<String, Double> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(parts[0], parts.length > 1 ? Double.parseDouble(parts[1]) : 1.0);
+        }
+        return mix;
+    }
+
+    private static long interval(Random random, double rate, boolean poisson) {
+        double seconds = poisson ? -Math.log(1 - random.nextDouble()) / rate : 1 / rate;
+        return Math.max(1, (long) (seconds * 1e9));
+    }
+
+    private record InFlight(String operation, long scheduled, long sent, boolean measured) {
+    }
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        void record(long latencyNanos, long serviceNanos, int status) {
+            latency.record(latencyNanos);
+            service.record(serviceNanos);
+            if (status >= 200 && status < 300) ok.increment();
+            else if (status == 429 || status == 503) rejected.increment();
+            else if (status == TIMED_OUT) timeouts.increment();
+            else errors.increment();
+        }
+
+        void append(StringBuilder out, String name, double seconds) {
+            out.append(String.format(Locale.ROOT,
+                    "%-10s %9d %9d %9d %7d %8d %8d %10.1f | %9.2f %9.2f %9.2f %9.2f %9.2f | %9.2f %9.2f%n",
+                    name, latency.count() + dropped.sum(), ok.sum(), rejected.sum(), errors.sum(),
+                    timeouts.sum(), dropped.sum(), latency.count() / seconds,
+                    ms(latency.percentile(0.50)), ms(latency.percentile(0.90)), ms(latency.percentile(0.99)),
+                    ms(latency.percentile(0.999)), ms(latency.max()),
+                    ms(service.percentile(0.50)), ms(service.percentile(0.99))));
+        }
+
+        private static double ms(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.hackathon.blackrock.loadtest;
+
+import com.hackathon.blackrock.benchmark.SyntheticData;
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.FilterRequest;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.ValidatorRequest;
+import com.hackathon.blackrock.utility.WireDateModule;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Pre-serialized request bodies for each operation, {@code distinct} per operation, and a
+ * weighted pick of the next operation. Bodies are built once up front so generating load
+ * costs the client almost nothing.
+ */
+final class Workload {
+
+    /** Operation name to endpoint path, relative to the API base. */
+    static final Map<String, String> PATHS = Map.of(
+            "parse", "/transactions:parse",
+            "validator", "/transactions:validator",
+            "filter", "/transactions:filter",
+            "nps", "/returns:nps",
+            "index", "/returns:index");
+
+    private final String[] operations;
+    private final double[] cumulativeWeights;
+    private final Map<String, byte[][]> bodies = new LinkedHashMap<>();
+
+    Workload(Map<String, Double> mix, int rows, int periods, double overlap,
+             double negativeRate, double duplicateRate, int distinct, long seed) {
+        ObjectMapper mapper = JsonMapper.builder().addModule(new WireDateModule()).build();
+        this.operations = mix.keySet().toArray(String[]::new);
+        this.cumulativeWeights = new double[operations.length];
+        double total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (!PATHS.containsKey(operations[i])) {
+                throw new IllegalArgumentException("Unknown operation " + operations[i] + ", expected one of " + PATHS.keySet());
+            }
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        for (String operation : operations) {
+            byte[][] variants = new byte[distinct][];
+            for (int v = 0; v < distinct; v++) {
+                long variantSeed = seed * 1_000_003L + v;
+                variants[v] = mapper.writeValueAsBytes(body(operation, rows, periods, overlap,
+                        negativeRate, duplicateRate, variantSeed));
+            }
+            bodies.put(operation, variants);
+        }
+    }
+
+    String[] operations() {
+        return operations;
+    }
+
+    String next(Random random) {
+        double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    byte[] body(String operation, Random random) {
+        byte[][] variants = bodies.get(operation);
+        return variants[random.nextInt(variants.length)];
+    }
+
+    private static Object body(String operation, int rows, int periods, double overlap,
+                               double negativeRate, double duplicateRate, long seed) {
+        if (operation.equals("parse")) return SyntheticData.expenses(rows, seed);
+
+        List<Transaction> transactions = SyntheticData.transactions(rows, seed, negativeRate, duplicateRate);
+        if (operation.equals("validator")) {
+            ValidatorRequest request = new ValidatorRequest();
+            request.setWage(50_000);
+            request.setTransactions(transactions);
+            return request;
+        }
+
+        List<QPeriod> q = SyntheticData.qPeriods(periods, rows, seed + 1, overlap);
+        List<PPeriod> p = SyntheticData.pPeriods(periods, rows, seed + 2, overlap);
+        List<KPeriod> k = SyntheticData.kPeriods(periods, rows, seed + 3, overlap);
+        if (operation.equals("filter")) {
+            FilterRequest request = new FilterRequest();
+            request.setWage(50_000);
+            request.setQ(q);
+            request.setP(p);
+            request.setK(k);
+            request.setTransactions(transactions);
+            return request;
+        }
+
+        Random random = new Random(seed);
+        ReturnsRequest request = new ReturnsRequest();
+        request.setAge(20 + random.nextInt(45));
+        request.setWage(20_000 + random.nextInt(200_000));
+        request.setInflation(3 + random.nextInt(50) / 10.0);
+        request.setQ(q);
+        request.setP(p);
+        request.setK(k);
+        request.setTransactions(transactions);
+        return request;
+    }
+}
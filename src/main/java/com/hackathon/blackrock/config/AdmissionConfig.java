@@ -0,0 +1,48 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.utility.AdmissionControl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "blackrock.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    // 0 allows two heavy requests per core
+    @Value("${blackrock.admission.max-concurrent:0}")
+    private int maxConcurrent;
+
+    @Value("${blackrock.admission.max-in-flight:64MB}")
+    private DataSize maxInFlight;
+
+    @Value("${blackrock.admission.unknown-size:1MB}")
+    private DataSize unknownSize;
+
+    @Value("${blackrock.admission.wait:100ms}")
+    private Duration wait;
+
+    @Value("${blackrock.admission.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Bean
+    public AdmissionControl admissionControl() {
+        int slots = maxConcurrent > 0 ? maxConcurrent : 2 * Runtime.getRuntime().availableProcessors();
+        return new AdmissionControl(slots, maxInFlight.toBytes(), wait.toMillis());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // the performance endpoint stays outside so it keeps answering under load
+        registry.addInterceptor(new AdmissionInterceptor(admissionControl(), unknownSize.toBytes(),
+                        Math.max(1, retryAfter.toSeconds())))
+                .addPathPatterns("/blackrock/challenge/v1/transactions:*", "/blackrock/challenge/v1/returns:*",
+                        "/blackrock/challenge/v1/sessions/**", "/blackrock/challenge/v1/users/**");
+    }
+}
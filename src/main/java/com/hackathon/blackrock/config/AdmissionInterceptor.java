@@ -0,0 +1,71 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.utility.AdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Locale;
+
+/**
+ * Admits heavy requests through {@link AdmissionControl}, estimating their size from
+ * Content-Length. A chunked body other than NDJSON may be bound whole, so it is charged the
+ * whole byte budget and runs alone. Turned-away requests get 429 when all slots are busy, 503 when the byte
+ * budget is exhausted, and a Retry-After header either way.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_BYTES = AdmissionInterceptor.class.getName() + ".bytes";
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final AdmissionControl admissionControl;
+    private final long unknownSizeBytes;
+    private final long retryAfterSeconds;
+
+    public AdmissionInterceptor(AdmissionControl admissionControl, long unknownSizeBytes, long retryAfterSeconds) {
+        this.admissionControl = admissionControl;
+        this.unknownSizeBytes = unknownSizeBytes;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        long payloadBytes = payloadBytes(request);
+
+        AdmissionControl.Outcome outcome = admissionControl.acquire(payloadBytes);
+        if (outcome == AdmissionControl.Outcome.ADMITTED) {
+            request.setAttribute(ADMITTED_BYTES, payloadBytes);
+            return true;
+        }
+        HttpStatus status = outcome == AdmissionControl.Outcome.TOO_MANY_REQUESTS
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return false;
+    }
+
+    private long payloadBytes(HttpServletRequest request) {
+        long length = request.getContentLengthLong();
+        if (length >= 0) return length;
+        String contentType = request.getContentType();
+        // NDJSON streams hold one line at a time, and a request without a body holds nothing
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(NDJSON)) return unknownSizeBytes;
+        if (contentType == null && request.getHeader(HttpHeaders.TRANSFER_ENCODING) == null) return unknownSizeBytes;
+        // any other body of unknown length may be read whole, so it is charged the whole budget
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object payloadBytes = request.getAttribute(ADMITTED_BYTES);
+        if (payloadBytes != null) {
+            request.removeAttribute(ADMITTED_BYTES);
+            admissionControl.release((Long) payloadBytes);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.utility.WireDateModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+@Configuration
+public class JacksonConfig {
+
+    // module beans are picked up by the auto-configured JsonMapper
+    @Bean
+    public JacksonModule wireDateModule() {
+        return new WireDateModule();
+    }
+
+    // binary mappers for Smile and CBOR clients, configured like the JSON one
+    @Bean
+    public SmileMapper smileMapper() {
+        return SmileMapper.builder()
+                .addModule(new WireDateModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @Bean
+    public CBORMapper cborMapper() {
+        return CBORMapper.builder()
+                .addModule(new WireDateModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+}
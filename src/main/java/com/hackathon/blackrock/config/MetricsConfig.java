@@ -0,0 +1,30 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.TracingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private TracingService tracingService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // first in line, so requests turned away by admission control are timed too
+        registry.addInterceptor(new MetricsInterceptor(metricsService))
+                .addPathPatterns("/blackrock/challenge/v1/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+        registry.addInterceptor(new TracingInterceptor(tracingService))
+                .addPathPatterns("/blackrock/challenge/v1/**")
+                .order(Ordered.HIGHEST_PRECEDENCE + 1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.service.MetricsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Times each request and measures the bytes its thread allocated, keyed by method and
+ * mapped path pattern so that path variables do not split an endpoint's stats.
+ */
+public class MetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START = MetricsInterceptor.class.getName() + ".start";
+    private static final String ALLOCATED = MetricsInterceptor.class.getName() + ".allocated";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final MetricsService metricsService;
+
+    public MetricsInterceptor(MetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START, System.nanoTime());
+        request.setAttribute(ALLOCATED, allocatedBytes());
+        metricsService.begin(endpoint(request));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START);
+        if (start == null) return;
+
+        long elapsed = System.nanoTime() - (Long) start;
+        long allocated = allocatedBytes() - (Long) request.getAttribute(ALLOCATED);
+        metricsService.end(endpoint(request), elapsed, allocated, ex != null || response.getStatus() >= 500);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static long allocatedBytes() {
+        // per-thread counter; a request that hops threads (async) under-reports, never fails
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.service.OfflineBatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Offline batch mode: when {@code blackrock.batch.input} is set, runs one operation over that
+ * file at startup and writes the result to {@code blackrock.batch.output}. Start it with
+ * {@code --spring.main.web-application-type=none} so the application exits when done.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blackrock.batch.input")
+public class OfflineBatchRunner implements CommandLineRunner {
+
+    @Autowired
+    private OfflineBatchService batchService;
+
+    @Value("${blackrock.batch.input}")
+    private Path input;
+
+    @Value("${blackrock.batch.output}")
+    private Path output;
+
+    @Value("${blackrock.batch.operation:validate}")
+    private String operation;
+
+    // optional JSON with the profile and q/p/k periods, in the shape of a returns request
+    @Value("${blackrock.batch.request:#{null}}")
+    private Path request;
+
+    @Value("${blackrock.batch.reason-codes:false}")
+    private boolean reasonCodes;
+
+    @Override
+    public void run(String... args) throws Exception {
+        long started = System.nanoTime();
+        long rows = batchService.run(operation, input, output, request, reasonCodes);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long bytes = Files.size(input);
+        log.info("{} {}: {} rows, {} MB in {} s ({} MB/s) -> {}", operation, input, rows,
+                String.format("%.1f", bytes / 1e6), String.format("%.2f", seconds),
+                String.format("%.0f", bytes / 1e6 / seconds), output);
+    }
+}
@@ -0,0 +1,39 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.utility.BatchExecutor;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class ParallelConfig {
+
+    @Value("${blackrock.parallel.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blackrock.parallel.threshold:50000}")
+    private int threshold;
+
+    // 0 shares the JVM's common pool instead of starting a dedicated one
+    @Value("${blackrock.parallel.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool dedicatedPool;
+
+    @Bean
+    public BatchExecutor batchExecutor() {
+        if (!enabled) return BatchExecutor.sequential();
+        if (parallelism <= 0) return new BatchExecutor(ForkJoinPool.commonPool(), threshold);
+
+        dedicatedPool = new ForkJoinPool(parallelism);
+        return new BatchExecutor(dedicatedPool, threshold);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dedicatedPool != null) dedicatedPool.shutdown();
+    }
+}
@@ -0,0 +1,28 @@
+package com.hackathon.blackrock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Tax regimes by name, e.g. {@code blackrock.tax.regimes.fy2025.slabs=0:0,700000:0.10,...}. */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blackrock.tax")
+public class TaxProperties {
+
+    /** Regime used when a request does not name one. */
+    private String defaultRegime = "default";
+
+    private Map<String, Regime> regimes = new LinkedHashMap<>();
+
+    @Data
+    public static class Regime {
+        /** Comma-separated {@code threshold:rate} pairs, the first threshold 0. */
+        private String slabs;
+        private double deductionRate = 0.10;
+        private double deductionCap = 200_000;
+    }
+}
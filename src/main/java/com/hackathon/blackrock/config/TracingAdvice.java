@@ -0,0 +1,67 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.service.TracingService;
+import com.hackathon.blackrock.utility.StageTrace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Times request body binding as the "bind" stage and writes the trace of a sampled request
+ * into its {@code Server-Timing} header. Streaming endpoints write their own body, so their
+ * stages reach the performance metrics but not a header.
+ */
+@ControllerAdvice
+public class TracingAdvice extends RequestBodyAdviceAdapter implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private TracingService tracingService;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+                                           Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        StageTrace trace = tracingService.current();
+        if (trace != null) trace.setPending(trace.open("bind", 0));
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        StageTrace trace = tracingService.current();
+        if (trace != null) trace.endPending(body instanceof Collection<?> rows ? rows.size() : 1);
+        return body;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        StageTrace trace = tracingService.current();
+        if (trace != null && trace.size() > 0) {
+            response.getHeaders().add("Server-Timing", trace.toServerTiming());
+        }
+        return body;
+    }
+}
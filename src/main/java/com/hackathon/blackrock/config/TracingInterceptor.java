@@ -0,0 +1,32 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.service.TracingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Binds a stage trace to sampled requests, and to any request sending {@code X-Trace: true}.
+ */
+public class TracingInterceptor implements HandlerInterceptor {
+
+    public static final String TRACE_HEADER = "X-Trace";
+
+    private final TracingService tracingService;
+
+    public TracingInterceptor(TracingService tracingService) {
+        this.tracingService = tracingService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        tracingService.begin("true".equalsIgnoreCase(request.getHeader(TRACE_HEADER)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        tracingService.end();
+    }
+}
@@ -0,0 +1,41 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.model.request.TransactionFrame;
+import com.hackathon.blackrock.utility.TransactionFrameCodec;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+
+/** Reads and writes {@link TransactionFrame} bodies in the columnar binary format. */
+public class TransactionFrameConverter extends AbstractHttpMessageConverter<TransactionFrame> {
+
+    public TransactionFrameConverter() {
+        super(MediaType.parseMediaType(TransactionFrame.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TransactionFrame.class == clazz;
+    }
+
+    @Override
+    protected TransactionFrame readInternal(Class<? extends TransactionFrame> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        byte[] body = inputMessage.getBody().readAllBytes();
+        try {
+            return TransactionFrameCodec.decode(body);
+        } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(TransactionFrame frame, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(TransactionFrameCodec.encode(frame));
+    }
+}
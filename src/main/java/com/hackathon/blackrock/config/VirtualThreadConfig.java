@@ -0,0 +1,23 @@
+package com.hackathon.blackrock.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The build targets Java 17, where {@code spring.threads.virtual.enabled} is silently ignored;
+ * asking for virtual threads on a runtime that has none fails the boot instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int MIN_RUNTIME = 21;
+
+    public VirtualThreadConfig() {
+        int runtime = Runtime.version().feature();
+        if (runtime < MIN_RUNTIME) {
+            throw new IllegalStateException("spring.threads.virtual.enabled needs a Java " + MIN_RUNTIME
+                    + "+ runtime, this is Java " + runtime);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hackathon.blackrock.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Smile and CBOR alongside JSON for every request and response body, chosen by
+ * Content-Type and Accept, plus the columnar transaction frame for bulk requests.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private SmileMapper smileMapper;
+
+    @Autowired
+    private CBORMapper cborMapper;
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper))
+                .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .addCustomConverter(new TransactionFrameConverter());
+    }
+}
@@ -18,4 +18,10 @@ public class PerformanceController {
     @GetMapping("/performance")
     public ResponseEntity<PerformanceResponse> getPerformance() {
         return ResponseEntity.ok(performanceService.getMetrics());
-    }}
+    }
+
+    @GetMapping(value = "/performance/prometheus", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public String getPrometheusMetrics() {
+        return performanceService.getPrometheusMetrics();
+    }
+}
@@ -1,29 +1,115 @@
 package com.hackathon.blackrock.controller;
 
 import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.TransactionFrame;
 import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.service.ResultCacheService;
 import com.hackathon.blackrock.service.ReturnsCalculationService;
+import com.hackathon.blackrock.utility.RequestDigest;
+import com.hackathon.blackrock.utility.WireFormat;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/blackrock/challenge/v1")
 public class ReturnsController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private ReturnsCalculationService returnsService;
 
+    @Autowired
+    private ResultCacheService resultCache;
+
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+
+    public ReturnsController(ObjectMapper objectMapper) {
+        this.requestReader = objectMapper.readerFor(ReturnsRequest.class);
+        this.resultWriter = objectMapper.writer()
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Answered from the result cache when an equal request was seen recently; 304 on a matching ETag.
+     * The result is JSON, Smile or CBOR, whichever Accept asks for first.
+     */
     @PostMapping("/returns:nps")
-    public ResponseEntity<ReturnsResponse> nps(@RequestBody ReturnsRequest request) {
-        return ResponseEntity.ok(returnsService.calculate(request, true));
+    public ResponseEntity<byte[]> nps(@RequestBody ReturnsRequest request,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return resultCache.get("returns:nps", RequestDigest.of(request), WireFormat.negotiate(accept),
+                        () -> returnsService.calculate(request, true))
+                .toResponse(ifNoneMatch);
     }
 
     @PostMapping("/returns:index")
-    public ResponseEntity<ReturnsResponse> index(@RequestBody ReturnsRequest request) {
-        return ResponseEntity.ok(returnsService.calculate(request, false));
+    public ResponseEntity<byte[]> index(@RequestBody ReturnsRequest request,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return resultCache.get("returns:index", RequestDigest.of(request), WireFormat.negotiate(accept),
+                        () -> returnsService.calculate(request, false))
+                .toResponse(ifNoneMatch);
+    }
+
+    /** Columnar binary request; computed on every call, not cached. */
+    @PostMapping(value = "/returns:nps", consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<ReturnsResponse> npsFrame(@RequestBody TransactionFrame frame) {
+        return ResponseEntity.ok(returnsService.calculate(frame, true));
+    }
+
+    @PostMapping(value = "/returns:index", consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<ReturnsResponse> indexFrame(@RequestBody TransactionFrame frame) {
+        return ResponseEntity.ok(returnsService.calculate(frame, false));
+    }
+
+    /**
+     * NPS and index returns for many users in one call. Takes a JSON array of returns
+     * requests and answers with a JSON array of results in the same order; each user is
+     * read, computed and written before the next one is read.
+     */
+    @PostMapping(value = "/returns:batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void batch(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (MappingIterator<ReturnsRequest> requests = requestReader.readValues(body);
+             JsonGenerator out = resultWriter.createGenerator(response.getOutputStream())) {
+            out.writeStartArray();
+            while (requests.hasNext()) {
+                resultWriter.writeValue(out, returnsService.calculateBoth(requests.next()));
+            }
+            out.writeEndArray();
+        }
+    }
+
+    /** NDJSON variant of batch: one request per line in, one result per line out. */
+    @PostMapping(value = "/returns:batch", consumes = NDJSON)
+    public void batchStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        try (MappingIterator<ReturnsRequest> requests = requestReader.readValues(body);
+             JsonGenerator out = resultWriter.createGenerator(response.getOutputStream())) {
+            while (requests.hasNext()) {
+                resultWriter.writeValue(out, returnsService.calculateBoth(requests.next()));
+                out.writeRaw('\n');
+            }
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.hackathon.blackrock.controller;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.model.request.response.SessionResponse;
+import com.hackathon.blackrock.service.ReturnsSessionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/blackrock/challenge/v1")
+public class SessionController {
+
+    @Autowired
+    private ReturnsSessionService sessionService;
+
+    @PostMapping("/sessions")
+    public ResponseEntity<SessionResponse> create(@RequestBody ReturnsRequest request) {
+        return ResponseEntity.ok(sessionService.create(request));
+    }
+
+    @PostMapping("/sessions/{sessionId}/transactions")
+    public ResponseEntity<SessionResponse> append(@PathVariable String sessionId,
+                                                  @RequestBody List<Transaction> transactions) {
+        return ResponseEntity.ok(sessionService.append(sessionId, transactions));
+    }
+
+    @GetMapping("/sessions/{sessionId}/returns:nps")
+    public ResponseEntity<ReturnsResponse> nps(@PathVariable String sessionId) {
+        return ResponseEntity.ok(sessionService.returns(sessionId, true));
+    }
+
+    @GetMapping("/sessions/{sessionId}/returns:index")
+    public ResponseEntity<ReturnsResponse> index(@PathVariable String sessionId) {
+        return ResponseEntity.ok(sessionService.returns(sessionId, false));
+    }
+
+    /**
+     * Returns for the k ranges in the body instead of the session's own, so a planner can try
+     * any number of ranges against the same history without resending it.
+     */
+    @PostMapping("/sessions/{sessionId}/returns:nps")
+    public ResponseEntity<ReturnsResponse> npsForRanges(@PathVariable String sessionId,
+                                                        @RequestBody List<KPeriod> kPeriods) {
+        return ResponseEntity.ok(sessionService.returns(sessionId, kPeriods, true));
+    }
+
+    @PostMapping("/sessions/{sessionId}/returns:index")
+    public ResponseEntity<ReturnsResponse> indexForRanges(@PathVariable String sessionId,
+                                                          @RequestBody List<KPeriod> kPeriods) {
+        return ResponseEntity.ok(sessionService.returns(sessionId, kPeriods, false));
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> close(@PathVariable String sessionId) {
+        sessionService.close(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+}
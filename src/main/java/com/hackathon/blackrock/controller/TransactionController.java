@@ -1,31 +1,82 @@
 package com.hackathon.blackrock.controller;
 
+import com.hackathon.blackrock.domain.ClassifiedRows;
 import com.hackathon.blackrock.model.request.ExpenseRequest;
 import com.hackathon.blackrock.model.request.FilterRequest;
+import com.hackathon.blackrock.model.request.TransactionFrame;
 import com.hackathon.blackrock.model.request.ValidatorRequest;
 import com.hackathon.blackrock.model.request.response.FilterResponse;
+import com.hackathon.blackrock.model.request.response.PageResponse;
+import com.hackathon.blackrock.model.request.response.SummaryResponse;
 import com.hackathon.blackrock.model.request.response.TransactionResponse;
 import com.hackathon.blackrock.model.request.response.ValidatorResponse;
+import com.hackathon.blackrock.service.ResultCacheService;
+import com.hackathon.blackrock.service.ResultPageService;
 import com.hackathon.blackrock.service.TransactionFilterService;
 import com.hackathon.blackrock.service.TransactionParsingService;
 import com.hackathon.blackrock.service.TransactionValidatorService;
+import com.hackathon.blackrock.utility.ClassifiedBatchWriter;
+import com.hackathon.blackrock.utility.RequestDigest;
+import com.hackathon.blackrock.utility.WireFormat;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/blackrock/challenge/v1")
 public class TransactionController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired private TransactionParsingService parserService;
     @Autowired private TransactionValidatorService validatorService;
     @Autowired
     private TransactionFilterService filterService;
+    @Autowired
+    private ResultCacheService resultCache;
+    @Autowired
+    private ResultPageService pageService;
+
+    private final ObjectReader expenseReader;
+    private final ObjectWriter lineWriter;
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+
+    public TransactionController(ObjectMapper objectMapper, SmileMapper smileMapper, CBORMapper cborMapper) {
+        this.expenseReader = objectMapper.readerFor(ExpenseRequest.class);
+        // lines are separated explicitly; flushing is left to the servlet buffer
+        this.lineWriter = objectMapper.writer()
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        mappers.put(WireFormat.JSON, objectMapper);
+        mappers.put(WireFormat.SMILE, smileMapper);
+        mappers.put(WireFormat.CBOR, cborMapper);
+    }
 
     @PostMapping("/transactions:parse")
     public ResponseEntity<TransactionResponse> parse(
@@ -33,15 +84,176 @@ public class TransactionController {
         return ResponseEntity.ok(parserService.parser(expenses));
     }
 
+    /**
+     * Totals-only variant of parse: the JSON array is read one expense at a time and folded
+     * into the totals, so the list is never bound.
+     */
+    @PostMapping(value = "/transactions:parse", params = "totalsOnly=true", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TransactionResponse> parseTotals(InputStream body) throws IOException {
+        try (MappingIterator<ExpenseRequest> expenses = expenseReader.readValues(body)) {
+            return ResponseEntity.ok(parserService.totals(expenses));
+        } catch (JacksonException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed expenses: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * NDJSON variant of parse: expenses are read and transactions written back one line at
+     * a time, followed by a final line with the totals, so memory stays flat for any upload.
+     */
+    @PostMapping(value = "/transactions:parse", consumes = NDJSON)
+    public void parseStream(InputStream body,
+                            @RequestParam(defaultValue = "false") boolean totalsOnly,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        try (MappingIterator<ExpenseRequest> expenses = expenseReader.readValues(body);
+             JsonGenerator out = lineWriter.createGenerator(response.getOutputStream())) {
+            TransactionResponse totals = totalsOnly
+                    ? parserService.totals(expenses)
+                    : parserService.parser(expenses, txn -> writeLine(out, txn));
+            writeLine(out, totals);
+        }
+    }
+
     @PostMapping("/transactions:validator")
     public ResponseEntity<ValidatorResponse> validate(
             @RequestBody ValidatorRequest request) {
         return ResponseEntity.ok(validatorService.validate(request));
     }
 
+    /** Columnar binary variant of validator; the transactions are decoded straight into columns. */
+    @PostMapping(value = "/transactions:validator", consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<ValidatorResponse> validateFrame(@RequestBody TransactionFrame frame) {
+        return ResponseEntity.ok(validatorService.validate(frame));
+    }
+
+    /**
+     * Streamed variant of validator: JSON, Smile, CBOR and frame bodies alike are bound straight
+     * into columns, classified in place and written from those columns to the response, with
+     * reason codes instead of messages when {@code reasonCodes} is set.
+     */
+    @PostMapping(value = "/transactions:validator", params = {"stream=true", "!view", "!limit"})
+    public void validateStream(@RequestBody TransactionFrame frame,
+                               @RequestParam(defaultValue = "false") boolean reasonCodes,
+                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                               HttpServletResponse response) throws IOException {
+        ClassifiedRows result = new ClassifiedRows(frame.getTransactions());
+        validatorService.classify(frame, result);
+        writeClassified(result, reasonCodes, accept, response);
+    }
+
+    /** Counts, sums and rejections per reason instead of the rows themselves. */
+    @PostMapping(value = "/transactions:validator", params = {"view=summary", "stream!=true", "!limit"})
+    public ResponseEntity<SummaryResponse> validateSummary(@RequestBody ValidatorRequest request,
+                                                           @RequestParam(defaultValue = "false") boolean reasonCodes) {
+        return ResponseEntity.ok(validatorService.summarize(request, reasonCodes));
+    }
+
+    @PostMapping(value = "/transactions:validator", params = {"view=summary", "stream!=true", "!limit"}, consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<SummaryResponse> validateFrameSummary(@RequestBody TransactionFrame frame,
+                                                                @RequestParam(defaultValue = "false") boolean reasonCodes) {
+        return ResponseEntity.ok(validatorService.summarize(frame, reasonCodes));
+    }
+
+    /** First {@code limit} rows, with a cursor to the rest for {@code /transactions:page}. */
+    @PostMapping(value = "/transactions:validator", params = {"limit", "stream!=true", "!view"})
+    public ResponseEntity<PageResponse> validatePage(@RequestBody ValidatorRequest request, @RequestParam int limit) {
+        return ResponseEntity.ok(pageService.first(validatorService.classify(request), limit));
+    }
+
+    @PostMapping(value = "/transactions:validator", params = {"limit", "stream!=true", "!view"}, consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<PageResponse> validateFramePage(@RequestBody TransactionFrame frame, @RequestParam int limit) {
+        return ResponseEntity.ok(pageService.first(validatorService.classify(frame), limit));
+    }
+
     @PostMapping("/transactions:filter")
-    public ResponseEntity<FilterResponse> filter(
-            @RequestBody FilterRequest request) {
-        return ResponseEntity.ok(filterService.filter(request));
+    public ResponseEntity<byte[]> filter(
+            @RequestBody FilterRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return resultCache.get("transactions:filter", RequestDigest.of(request), WireFormat.negotiate(accept),
+                        () -> filterService.filter(request))
+                .toResponse(ifNoneMatch);
+    }
+
+    /** Columnar binary variant of filter; computed on every call, not cached. */
+    @PostMapping(value = "/transactions:filter", consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<FilterResponse> filterFrame(@RequestBody TransactionFrame frame) {
+        return ResponseEntity.ok(filterService.filter(frame));
+    }
+
+    /** Streamed variant of filter, as {@link #validateStream}; computed on every call, not cached. */
+    @PostMapping(value = "/transactions:filter", params = {"stream=true", "!view", "!limit"})
+    public void filterStream(@RequestBody TransactionFrame frame,
+                             @RequestParam(defaultValue = "false") boolean reasonCodes,
+                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                             HttpServletResponse response) throws IOException {
+        ClassifiedRows result = new ClassifiedRows(frame.getTransactions());
+        filterService.classify(frame, result);
+        writeClassified(result, reasonCodes, accept, response);
+    }
+
+    @PostMapping(value = "/transactions:filter", params = {"view=summary", "stream!=true", "!limit"})
+    public ResponseEntity<SummaryResponse> filterSummary(@RequestBody FilterRequest request,
+                                                         @RequestParam(defaultValue = "false") boolean reasonCodes) {
+        return ResponseEntity.ok(filterService.summarize(request, reasonCodes));
+    }
+
+    @PostMapping(value = "/transactions:filter", params = {"view=summary", "stream!=true", "!limit"}, consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<SummaryResponse> filterFrameSummary(@RequestBody TransactionFrame frame,
+                                                              @RequestParam(defaultValue = "false") boolean reasonCodes) {
+        return ResponseEntity.ok(filterService.summarize(frame, reasonCodes));
+    }
+
+    @PostMapping(value = "/transactions:filter", params = {"limit", "stream!=true", "!view"})
+    public ResponseEntity<PageResponse> filterPage(@RequestBody FilterRequest request, @RequestParam int limit) {
+        return ResponseEntity.ok(pageService.first(filterService.classify(request), limit));
+    }
+
+    @PostMapping(value = "/transactions:filter", params = {"limit", "stream!=true", "!view"}, consumes = TransactionFrame.MEDIA_TYPE)
+    public ResponseEntity<PageResponse> filterFramePage(@RequestBody TransactionFrame frame, @RequestParam int limit) {
+        return ResponseEntity.ok(pageService.first(filterService.classify(frame), limit));
+    }
+
+    // stream=true, view and limit each pick a different response; more than one is a 400
+    @PostMapping(value = {"/transactions:validator", "/transactions:filter"}, params = {"stream=true", "view"})
+    public void streamWithView() {
+        throw conflictingModes("stream=true", "view");
+    }
+
+    @PostMapping(value = {"/transactions:validator", "/transactions:filter"}, params = {"stream=true", "limit", "!view"})
+    public void streamWithLimit() {
+        throw conflictingModes("stream=true", "limit");
+    }
+
+    @PostMapping(value = {"/transactions:validator", "/transactions:filter"}, params = {"view", "limit", "stream!=true"})
+    public void viewWithLimit() {
+        throw conflictingModes("view", "limit");
+    }
+
+    /** The next page of a paged validator or filter result. */
+    @GetMapping("/transactions:page")
+    public ResponseEntity<PageResponse> page(@RequestParam String cursor,
+                                             @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(pageService.next(cursor, limit));
+    }
+
+    private void writeClassified(ClassifiedRows result, boolean reasonCodes, String accept,
+                                 HttpServletResponse response) throws IOException {
+        WireFormat format = WireFormat.negotiate(accept);
+        response.setContentType(format.mediaType().toString());
+        try (JsonGenerator out = mappers.get(format).createGenerator(response.getOutputStream())) {
+            new ClassifiedBatchWriter(out, reasonCodes).write(result);
+        }
+    }
+
+    private static ResponseStatusException conflictingModes(String first, String second) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                first + " and " + second + " cannot be combined; pick one of stream=true, view=summary or limit");
+    }
+
+    private void writeLine(JsonGenerator out, Object value) {
+        lineWriter.writeValue(out, value);
+        out.writeRaw('\n');
     }
 }
@@ -0,0 +1,48 @@
+package com.hackathon.blackrock.controller;
+
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.model.request.response.StoredUserResponse;
+import com.hackathon.blackrock.service.TransactionStoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/blackrock/challenge/v1")
+public class UserController {
+
+    @Autowired
+    private TransactionStoreService storeService;
+
+    @PutMapping("/users/{userId}")
+    public ResponseEntity<StoredUserResponse> saveProfile(@PathVariable String userId,
+                                                          @RequestBody ReturnsRequest request) {
+        return ResponseEntity.ok(storeService.saveProfile(userId, request));
+    }
+
+    @PostMapping("/users/{userId}/transactions")
+    public ResponseEntity<StoredUserResponse> append(@PathVariable String userId,
+                                                     @RequestBody List<Transaction> transactions) {
+        return ResponseEntity.ok(storeService.append(userId, transactions));
+    }
+
+    @GetMapping("/users/{userId}/returns:nps")
+    public ResponseEntity<ReturnsResponse> nps(@PathVariable String userId) {
+        return ResponseEntity.ok(storeService.returns(userId, true));
+    }
+
+    @GetMapping("/users/{userId}/returns:index")
+    public ResponseEntity<ReturnsResponse> index(@PathVariable String userId) {
+        return ResponseEntity.ok(storeService.returns(userId, false));
+    }
+}
@@ -0,0 +1,13 @@
+package com.hackathon.blackrock.domain;
+
+/**
+ * Receives the rows of a {@link TransactionBatch} as the validator or filter classifies them,
+ * in row order. {@link ClassifiedBatch} keeps them; other sinks may only count them.
+ */
+public interface ClassificationSink {
+
+    /** {@code row} of {@code source} is valid, with the remanent (paise) and k flag it ends up with. */
+    void accept(TransactionBatch source, int row, long remanent, Boolean inKPeriod);
+
+    void reject(TransactionBatch source, int row, RejectReason reason);
+}
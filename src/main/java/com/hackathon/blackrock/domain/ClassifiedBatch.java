@@ -0,0 +1,59 @@
+package com.hackathon.blackrock.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows of a {@link TransactionBatch} split into valid and invalid, with the reason for each
+ * invalid row kept in step with the invalid batch.
+ */
+public final class ClassifiedBatch implements ClassificationSink {
+
+    private final TransactionBatch valid;
+    private final TransactionBatch invalid;
+    private final List<RejectReason> reasons;
+
+    public ClassifiedBatch(int capacity) {
+        this.valid = new TransactionBatch(capacity);
+        this.invalid = new TransactionBatch();
+        this.reasons = new ArrayList<>();
+    }
+
+    public TransactionBatch valid() {
+        return valid;
+    }
+
+    public TransactionBatch invalid() {
+        return invalid;
+    }
+
+    public RejectReason reason(int invalidRow) {
+        return reasons.get(invalidRow);
+    }
+
+    /** Copies {@code row} into the valid batch, with its remanent and k flag replaced. */
+    @Override
+    public void accept(TransactionBatch source, int row, long remanent, Boolean inKPeriod) {
+        int copy = valid.addRow(source, row);
+        valid.setRemanent(copy, remanent);
+        if (inKPeriod != null) valid.setInKPeriod(copy, inKPeriod);
+    }
+
+    @Override
+    public void reject(TransactionBatch source, int row, RejectReason reason) {
+        invalid.addRow(source, row);
+        reasons.add(reason);
+    }
+
+    public int size() {
+        return valid.size() + invalid.size();
+    }
+
+    public List<InvalidTransaction> toInvalidTransactions() {
+        List<InvalidTransaction> result = new ArrayList<>(invalid.size());
+        for (int row = 0; row < invalid.size(); row++) {
+            result.add(invalid.toInvalid(row, reasons.get(row).message()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.hackathon.blackrock.domain;
+
+/**
+ * The outcome of each row of one {@link TransactionBatch}, classified in place: accepted rows
+ * get their final remanent and k flag written back into the batch, and every row keeps a byte
+ * for whether it was accepted or why not. Where {@link ClassifiedBatch} copies the rows, this
+ * costs one byte a row, for callers that only write the result out once.
+ */
+public final class ClassifiedRows implements ClassificationSink {
+
+    private static final RejectReason[] REASONS = RejectReason.values();
+    // outcome of an accepted row; rejected rows hold their reason's ordinal
+    private static final byte VALID = -1;
+
+    private final TransactionBatch rows;
+    private final byte[] outcome;
+    private int invalidCount;
+
+    public ClassifiedRows(TransactionBatch rows) {
+        this.rows = rows;
+        this.outcome = new byte[rows.size()];
+    }
+
+    public TransactionBatch rows() {
+        return rows;
+    }
+
+    public boolean isValid(int row) {
+        return outcome[row] == VALID;
+    }
+
+    /** Why {@code row} was rejected; only for rows that are not {@link #isValid valid}. */
+    public RejectReason reason(int row) {
+        return REASONS[outcome[row]];
+    }
+
+    public int validCount() {
+        return rows.size() - invalidCount;
+    }
+
+    public int invalidCount() {
+        return invalidCount;
+    }
+
+    @Override
+    public void accept(TransactionBatch source, int row, long remanent, Boolean inKPeriod) {
+        checkSource(source);
+        rows.setRemanent(row, remanent);
+        if (inKPeriod != null) rows.setInKPeriod(row, inKPeriod);
+        outcome[row] = VALID;
+    }
+
+    @Override
+    public void reject(TransactionBatch source, int row, RejectReason reason) {
+        checkSource(source);
+        outcome[row] = (byte) reason.ordinal();
+        invalidCount++;
+    }
+
+    private void checkSource(TransactionBatch source) {
+        if (source != rows) throw new IllegalArgumentException("Rows of another batch cannot be classified here");
+    }
+}
@@ -0,0 +1,33 @@
+package com.hackathon.blackrock.domain;
+
+/**
+ * Why a transaction was rejected. The message is what the endpoints have always returned;
+ * the code is its short, stable form, shared by the validator and filter wordings of the
+ * same check.
+ */
+public enum RejectReason {
+    // validator
+    NEGATIVE_AMOUNT("NEGATIVE", "No Negative amounts are allowed"),
+    AMOUNT_TOO_LARGE("TOO_LARGE", "Amount too large for transaction"),
+    DUPLICATE_TRANSACTION("DUPLICATE", "Transaction has already been seen"),
+    INVALID_CEILING("BAD_CEILING", "Ceiling is not valid"),
+    // filter
+    NEGATIVE_NOT_ALLOWED("NEGATIVE", "Negative amounts are not allowed"),
+    DATE_IN_USE("DUPLICATE", "Date is already in use");
+
+    private final String code;
+    private final String message;
+
+    RejectReason(String code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public String message() {
+        return message;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hackathon.blackrock.domain;
+
+import com.hackathon.blackrock.utility.DuplicateDetector;
+import com.hackathon.blackrock.utility.KPeriodSums;
+import com.hackathon.blackrock.utility.Money;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import com.hackathon.blackrock.utility.RangeSumIndex;
+import com.hackathon.blackrock.utility.TransactionTotals;
+
+import java.util.List;
+
+/**
+ * Server-side state for one user's returns: the compiled period rules, the dates seen so far,
+ * running totals and running per-k remanent sums. Appending a transaction applies the same
+ * rules as a one-shot returns request (negatives and repeated dates are dropped, q and p
+ * adjust the remanent) and costs O(log k) rather than a pass over the whole history.
+ * The kept remanents are also indexed by date, so returns over any other k ranges cost
+ * O(log n) per range.
+ *
+ * Instances are not thread-safe; callers lock on the session.
+ */
+public final class ReturnsSession {
+
+    private final String id;
+    private final PeriodRuleSet rules;
+    private final int age;
+    private final double wage;
+    private final double inflation;
+    private final String taxRegime;
+
+    private final DuplicateDetector seenDates = DuplicateDetector.hashed(16);
+    private final TransactionTotals totals = new TransactionTotals();
+    private final KPeriodSums kSums;
+    private final RangeSumIndex remanentIndex = RangeSumIndex.empty();
+
+    public ReturnsSession(String id, PeriodRuleSet rules, int age, double wage, double inflation,
+                          String taxRegime) {
+        this.id = id;
+        this.rules = rules;
+        this.age = age;
+        this.wage = wage;
+        this.inflation = inflation;
+        this.taxRegime = taxRegime;
+        this.kSums = new KPeriodSums(rules.kPeriods());
+    }
+
+    /** Appends {@code transactions} in order and returns how many were kept. */
+    public int append(List<Transaction> transactions) {
+        int accepted = 0;
+        for (Transaction txn : transactions) {
+            long amount = Money.toMinor(txn.getAmount());
+            if (amount < 0) continue;
+
+            long timestamp = TransactionBatch.toEpochSecond(txn.getDate());
+            if (!seenDates.firstSeen(timestamp)) continue;
+
+            long remanent = rules.remanentAt(timestamp, Money.toMinor(txn.getRemanent()));
+            totals.add(amount, Money.toMinor(txn.getCeiling()), remanent);
+            kSums.add(timestamp, remanent);
+            remanentIndex.add(timestamp, remanent);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public PeriodRuleSet rules() {
+        return rules;
+    }
+
+    public int age() {
+        return age;
+    }
+
+    public double wage() {
+        return wage;
+    }
+
+    public double inflation() {
+        return inflation;
+    }
+
+    public String taxRegime() {
+        return taxRegime;
+    }
+
+    public TransactionTotals totals() {
+        return totals;
+    }
+
+    /** Remanent per k period so far, in paise and in request order. */
+    public long[] kRemanents() {
+        return kSums.sums();
+    }
+
+    /** Every kept remanent (paise) by date, for k ranges other than the session's own. */
+    public RangeSumIndex remanentIndex() {
+        return remanentIndex;
+    }
+}
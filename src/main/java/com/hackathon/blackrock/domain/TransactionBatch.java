@@ -0,0 +1,221 @@
+package com.hackathon.blackrock.domain;
+
+import com.hackathon.blackrock.utility.Money;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Column-oriented list of transactions: epoch-second timestamps, money in paise and the
+ * k-period flag as bits. Services work on these columns directly and only turn rows back
+ * into {@link Transaction} objects when building the JSON response.
+ *
+ * The raw column accessors return the backing arrays, which may be longer than {@link #size()}.
+ */
+public final class TransactionBatch {
+
+    /** Timestamp stored for a transaction that arrived without a date. */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] timestamps;
+    private long[] amounts;
+    private long[] ceilings;
+    private long[] remanents;
+    // inKPeriod is a nullable Boolean on the wire: one bit for "set", one for the value
+    private final BitSet kFlagged = new BitSet();
+    private final BitSet inKPeriod = new BitSet();
+    // rows that arrived with a fraction of a paisa somewhere, rounded away in the money columns
+    private final BitSet notInPaise = new BitSet();
+    private int size;
+
+    public TransactionBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TransactionBatch(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.timestamps = new long[initial];
+        this.amounts = new long[initial];
+        this.ceilings = new long[initial];
+        this.remanents = new long[initial];
+    }
+
+    private TransactionBatch(long[] timestamps, long[] amounts, long[] ceilings, long[] remanents, int size) {
+        this.timestamps = timestamps;
+        this.amounts = amounts;
+        this.ceilings = ceilings;
+        this.remanents = remanents;
+        this.size = size;
+    }
+
+    /** A batch over columns decoded elsewhere, used as they are; each must hold at least {@code size} rows. */
+    public static TransactionBatch wrap(long[] timestamps, long[] amounts, long[] ceilings, long[] remanents, int size) {
+        if (timestamps.length < size || amounts.length < size || ceilings.length < size || remanents.length < size) {
+            throw new IllegalArgumentException("Columns are shorter than " + size + " rows");
+        }
+        if (size == 0) return new TransactionBatch();
+        return new TransactionBatch(timestamps, amounts, ceilings, remanents, size);
+    }
+
+    public static TransactionBatch of(List<Transaction> transactions) {
+        TransactionBatch batch = new TransactionBatch(transactions.size());
+        for (Transaction txn : transactions) {
+            batch.add(txn);
+        }
+        return batch;
+    }
+
+    public static long toEpochSecond(LocalDateTime date) {
+        return date == null ? NO_DATE : date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toDate(long epochSecond) {
+        return epochSecond == NO_DATE ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /** Appends {@code txn} as a row, converting its money to paise, and returns the row's index. */
+    public int add(Transaction txn) {
+        int row = add(toEpochSecond(txn.getDate()),
+                Money.toMinor(txn.getAmount()),
+                Money.toMinor(txn.getCeiling()),
+                Money.toMinor(txn.getRemanent()));
+        if (txn.getInKPeriod() != null) {
+            setInKPeriod(row, txn.getInKPeriod());
+        }
+        if (!Money.isWholeMinor(txn.getAmount()) || !Money.isWholeMinor(txn.getCeiling())
+                || !Money.isWholeMinor(txn.getRemanent())) {
+            markNotInPaise(row);
+        }
+        return row;
+    }
+
+    /** Appends a row and returns its index. Money values are in paise. */
+    public int add(long timestamp, long amount, long ceiling, long remanent) {
+        if (size == timestamps.length) grow();
+        timestamps[size] = timestamp;
+        amounts[size] = amount;
+        ceilings[size] = ceiling;
+        remanents[size] = remanent;
+        return size++;
+    }
+
+    /** Appends a row, flagging it when its money had a fraction of a paisa before rounding. */
+    public int add(long timestamp, long amount, long ceiling, long remanent, boolean inPaise) {
+        int row = add(timestamp, amount, ceiling, remanent);
+        if (!inPaise) markNotInPaise(row);
+        return row;
+    }
+
+    /** Appends a copy of {@code row} from {@code source}, k and paise flags included. */
+    public int addRow(TransactionBatch source, int row) {
+        int copy = add(source.timestamps[row], source.amounts[row], source.ceilings[row], source.remanents[row]);
+        if (source.kFlagged.get(row)) {
+            setInKPeriod(copy, source.inKPeriod.get(row));
+        }
+        if (source.notInPaise.get(row)) {
+            markNotInPaise(copy);
+        }
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long timestamp(int row) {
+        return timestamps[row];
+    }
+
+    public long amount(int row) {
+        return amounts[row];
+    }
+
+    public long ceiling(int row) {
+        return ceilings[row];
+    }
+
+    public long remanent(int row) {
+        return remanents[row];
+    }
+
+    public void setRemanent(int row, long remanent) {
+        remanents[row] = remanent;
+    }
+
+    /** The k flag of {@code row}, or null when it was never set. */
+    public Boolean inKPeriod(int row) {
+        return kFlagged.get(row) ? inKPeriod.get(row) : null;
+    }
+
+    public void setInKPeriod(int row, boolean value) {
+        kFlagged.set(row);
+        inKPeriod.set(row, value);
+    }
+
+    /** False when the row's money arrived with a fraction of a paisa, so its columns are rounded. */
+    public boolean inPaise(int row) {
+        return !notInPaise.get(row);
+    }
+
+    public void markNotInPaise(int row) {
+        notInPaise.set(row);
+    }
+
+    public long[] timestampColumn() {
+        return timestamps;
+    }
+
+    public long[] amountColumn() {
+        return amounts;
+    }
+
+    public long[] ceilingColumn() {
+        return ceilings;
+    }
+
+    public long[] remanentColumn() {
+        return remanents;
+    }
+
+    public Transaction toTransaction(int row) {
+        return Transaction.builder()
+                .date(toDate(timestamps[row]))
+                .amount(Money.toRupees(amounts[row]))
+                .ceiling(Money.toRupees(ceilings[row]))
+                .remanent(Money.toRupees(remanents[row]))
+                .inKPeriod(inKPeriod(row))
+                .build();
+    }
+
+    public InvalidTransaction toInvalid(int row, String message) {
+        return InvalidTransaction.builder()
+                .date(toDate(timestamps[row]))
+                .amount(Money.toRupees(amounts[row]))
+                .ceiling(Money.toRupees(ceilings[row]))
+                .remanent(Money.toRupees(remanents[row]))
+                .message(message)
+                .build();
+    }
+
+    public List<Transaction> toTransactions() {
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            transactions.add(toTransaction(row));
+        }
+        return transactions;
+    }
+
+    private void grow() {
+        int capacity = timestamps.length * 2;
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        ceilings = Arrays.copyOf(ceilings, capacity);
+        remanents = Arrays.copyOf(remanents, capacity);
+    }
+}
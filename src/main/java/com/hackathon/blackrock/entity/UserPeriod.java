@@ -0,0 +1,45 @@
+package com.hackathon.blackrock.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One q, p or k period of a stored user, in epoch seconds with the amount in paise
+ * (q fixed, p extra, unused for k). Position keeps request order, which decides q ties and
+ * the order of k results.
+ */
+@Entity
+@Table(name = "user_period", indexes = @Index(name = "idx_user_period_user", columnList = "user_id, kind, pos"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPeriod {
+
+    public static final char Q = 'Q';
+    public static final char P = 'P';
+    public static final char K = 'K';
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", length = 64, nullable = false)
+    private String userId;
+    private char kind;
+    @Column(name = "pos")
+    private int position;
+    @Column(name = "start_ts")
+    private long startTs;
+    @Column(name = "end_ts")
+    private long endTs;
+    private long amount;
+}
@@ -0,0 +1,28 @@
+package com.hackathon.blackrock.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A stored user's returns inputs; the user's periods live in {@link UserPeriod}. */
+@Entity
+@Table(name = "user_profile")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProfile {
+    @Id
+    @Column(name = "user_id", length = 64)
+    private String userId;
+    private int age;
+    private double wage;
+    private double inflation;
+    @Column(name = "tax_regime", length = 64)
+    private String taxRegime;
+}
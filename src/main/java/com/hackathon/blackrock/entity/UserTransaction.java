@@ -0,0 +1,34 @@
+package com.hackathon.blackrock.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Table mapping for stored transactions. Rows are written and aggregated with plain JDBC in
+ * bulk, so this entity only defines the schema. Only valid rows are stored: amounts are
+ * non-negative and (user, timestamp) is unique, which also serves as the range-scan index.
+ * Money is in paise; {@code enriched_remanent} is the remanent after the user's q and p rules.
+ */
+@Entity
+@Table(name = "user_transaction",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_transaction_ts", columnNames = {"user_id", "ts"}))
+@Data
+public class UserTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", length = 64, nullable = false)
+    private String userId;
+    private long ts;
+    private long amount;
+    private long ceiling;
+    private long remanent;
+    @Column(name = "enriched_remanent")
+    private long enrichedRemanent;
+}
@@ -10,9 +10,13 @@ import java.util.List;
 
 @Data
 public class ReturnsRequest {
+    // optional, echoed back by the batch endpoint
+    private String userId;
     private int age;
     private double wage;
     private double inflation;
+    // optional; the configured default regime applies when absent
+    private String taxRegime;
     private List<QPeriod> q;
     private List<PPeriod> p;
     private List<KPeriod> k;
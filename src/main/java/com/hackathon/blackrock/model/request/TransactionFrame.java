@@ -0,0 +1,33 @@
+package com.hackathon.blackrock.model.request;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.utility.TransactionBatchDeserializer;
+import lombok.Data;
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+import java.util.List;
+
+/**
+ * A validator, filter or returns request read from the columnar binary format
+ * ({@link com.hackathon.blackrock.utility.TransactionFrameCodec}): the same fields as the
+ * JSON requests, with the transactions already in columns. Streamed endpoints bind JSON
+ * bodies to it as well. Endpoints ignore the fields they do not use.
+ */
+@Data
+public class TransactionFrame {
+    public static final String MEDIA_TYPE = "application/x-blackrock-columns";
+
+    private String userId;
+    private int age;
+    private double wage;
+    private double inflation;
+    private String taxRegime;
+    private List<QPeriod> q;
+    private List<PPeriod> p;
+    private List<KPeriod> k;
+    @JsonDeserialize(using = TransactionBatchDeserializer.class)
+    private TransactionBatch transactions = new TransactionBatch();
+}
@@ -0,0 +1,14 @@
+package com.hackathon.blackrock.model.request.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchReturnsResponse {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String userId;
+    private ReturnsResponse nps;
+    private ReturnsResponse index;
+}
@@ -0,0 +1,15 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheMetrics {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+    private long entries;
+    private long sizeBytes;
+}
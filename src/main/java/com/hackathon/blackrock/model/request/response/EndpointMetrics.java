@@ -0,0 +1,22 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EndpointMetrics {
+    private long requests;
+    private long errors;
+    private double requestsPerSecond;
+    // latency in milliseconds
+    private double meanMs;
+    private double p50Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+    // transaction rows processed
+    private long rows;
+    private double rowsPerSecond;
+    private long allocatedBytesPerRequest;
+}
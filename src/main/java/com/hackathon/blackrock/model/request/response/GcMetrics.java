@@ -0,0 +1,12 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class GcMetrics {
+    private String name;
+    private long collections;
+    private long timeMs;
+}
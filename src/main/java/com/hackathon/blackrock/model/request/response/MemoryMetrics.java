@@ -0,0 +1,15 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MemoryMetrics {
+    private long heapUsedBytes;
+    private long heapCommittedBytes;
+    private long heapMaxBytes;
+    private long nonHeapUsedBytes;
+    private long directBufferBytes;
+    private long mappedBufferBytes;
+}
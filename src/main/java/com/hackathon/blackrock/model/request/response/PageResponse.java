@@ -0,0 +1,21 @@
+package com.hackathon.blackrock.model.request.response;
+
+import com.hackathon.blackrock.domain.InvalidTransaction;
+import com.hackathon.blackrock.domain.Transaction;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PageResponse {
+    // rows are paged invalid first, then valid, as the full response lists them
+    private List<InvalidTransaction> invalid;
+    private List<Transaction> valid;
+    // over the whole result, not this page
+    private long invalidCount;
+    private long validCount;
+    // cursor for the following page, null on the last one
+    private String next;
+}
@@ -3,10 +3,20 @@ package com.hackathon.blackrock.model.request.response;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Builder
 public class PerformanceResponse {
     private String time;
     private String memory;
     private int threads;
+    private CacheMetrics cache;
+    private MemoryMetrics memoryDetail;
+    private List<GcMetrics> gc;
+    // keyed by "METHOD /path/pattern"
+    private Map<String, EndpointMetrics> endpoints;
+    // sampled pipeline stages, keyed by stage name
+    private Map<String, StageMetrics> stages;
 }
@@ -0,0 +1,13 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SessionResponse {
+    private String sessionId;
+    // transactions kept from this call, and in the session overall
+    private int accepted;
+    private long transactionCount;
+}
@@ -0,0 +1,18 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StageMetrics {
+    // sampled executions of the stage
+    private long count;
+    private double meanMs;
+    private double p50Ms;
+    private double p99Ms;
+    private double maxMs;
+    private long rowsIn;
+    private long rowsOut;
+    private long allocatedBytesPerCall;
+}
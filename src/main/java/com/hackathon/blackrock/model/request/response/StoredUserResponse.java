@@ -0,0 +1,13 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StoredUserResponse {
+    private String userId;
+    // transactions kept from this call, and stored for the user overall
+    private int accepted;
+    private long transactionCount;
+}
@@ -0,0 +1,21 @@
+package com.hackathon.blackrock.model.request.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class SummaryResponse {
+    private long validCount;
+    private double validAmount;
+    private double validCeiling;
+    // remanents after q/p rules when filtering
+    private double validRemanent;
+    private long inKPeriodCount;
+    private long invalidCount;
+    private double invalidAmount;
+    // rejected rows per message (or per code), only reasons that occurred
+    private Map<String, Long> reasons;
+}
@@ -1,5 +1,6 @@
 package com.hackathon.blackrock.model.request.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.hackathon.blackrock.domain.Transaction;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,8 @@ import java.util.List;
 @Data
 @Builder
 public class TransactionResponse {
+    // null when the transactions were streamed out ahead of the totals
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Transaction> transactions;
     private double totalAmount;
     private double totalCeiling;
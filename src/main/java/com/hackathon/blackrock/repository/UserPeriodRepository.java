@@ -0,0 +1,17 @@
+package com.hackathon.blackrock.repository;
+
+import com.hackathon.blackrock.entity.UserPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface UserPeriodRepository extends JpaRepository<UserPeriod, Long> {
+
+    List<UserPeriod> findByUserIdOrderByKindAscPositionAsc(String userId);
+
+    @Modifying
+    @Query("delete from UserPeriod p where p.userId = :userId")
+    void deleteByUserId(String userId);
+}
@@ -0,0 +1,20 @@
+package com.hackathon.blackrock.repository;
+
+import com.hackathon.blackrock.entity.UserProfile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface UserProfileRepository extends JpaRepository<UserProfile, String> {
+
+    /**
+     * The profile, locked until the transaction ends, so writes to one user's transactions
+     * (duplicate check, then insert) run one at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from UserProfile u where u.userId = :userId")
+    Optional<UserProfile> findByIdForUpdate(String userId);
+}
@@ -0,0 +1,125 @@
+package com.hackathon.blackrock.repository;
+
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.utility.LongHashSet;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import com.hackathon.blackrock.utility.TransactionTotals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+
+/**
+ * Bulk JDBC access to the {@code user_transaction} table. Inserts and updates go out as
+ * JDBC batches, and totals and per-k sums are aggregated in the database, so returns for a
+ * stored user never load the user's rows into memory.
+ */
+@Repository
+public class UserTransactionStore {
+
+    private static final String INSERT =
+            "insert into user_transaction (user_id, ts, amount, ceiling, remanent, enriched_remanent) "
+                    + "values (?, ?, ?, ?, ?, ?)";
+
+    private static final String EXISTING_TIMESTAMPS =
+            "select ts from user_transaction where user_id = ? and ts between ? and ?";
+
+    private static final String TOTALS =
+            "select count(*), coalesce(sum(amount), 0), coalesce(sum(ceiling), 0), "
+                    + "coalesce(sum(enriched_remanent), 0) from user_transaction where user_id = ?";
+
+    // one row per k period in request order; each k range is an index range scan on (user_id, ts)
+    private static final String K_SUMS =
+            "select k.pos, coalesce(sum(t.enriched_remanent), 0) from user_period k "
+                    + "left join user_transaction t on t.user_id = k.user_id and t.ts between k.start_ts and k.end_ts "
+                    + "where k.user_id = ? and k.kind = 'K' group by k.pos order by k.pos";
+
+    private static final String REMANENTS =
+            "select id, ts, remanent from user_transaction where user_id = ?";
+
+    private static final String UPDATE_ENRICHED =
+            "update user_transaction set enriched_remanent = ? where id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${blackrock.store.batch-size:1000}")
+    private int batchSize;
+
+    /** Timestamps already stored for {@code userId} within {@code [from, to]}. */
+    public LongHashSet existingTimestamps(String userId, long from, long to) {
+        LongHashSet existing = new LongHashSet(16);
+        jdbcTemplate.query(EXISTING_TIMESTAMPS, rs -> {
+            existing.add(rs.getLong(1));
+        }, userId, from, to);
+        return existing;
+    }
+
+    /** Inserts the given rows of {@code batch}, with {@code enriched[i]} as the enriched remanent of {@code rows[i]}. */
+    public void insert(String userId, TransactionBatch batch, int[] rows, long[] enriched, int count) {
+        for (int from = 0; from < count; from += batchSize) {
+            int start = from;
+            int end = Math.min(count, from + batchSize);
+            jdbcTemplate.execute(INSERT, (PreparedStatement ps) -> {
+                for (int i = start; i < end; i++) {
+                    int row = rows[i];
+                    ps.setString(1, userId);
+                    ps.setLong(2, batch.timestamp(row));
+                    ps.setLong(3, batch.amount(row));
+                    ps.setLong(4, batch.ceiling(row));
+                    ps.setLong(5, batch.remanent(row));
+                    ps.setLong(6, enriched[i]);
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            });
+        }
+    }
+
+    public TransactionTotals totals(String userId) {
+        return jdbcTemplate.queryForObject(TOTALS, (rs, rowNum) ->
+                TransactionTotals.of(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)), userId);
+    }
+
+    /** Enriched remanent summed per stored k period, in paise and in k order. */
+    public long[] sumByKPeriod(String userId, int kPeriods) {
+        long[] sums = new long[kPeriods];
+        jdbcTemplate.query(K_SUMS, rs -> {
+            sums[rs.getInt(1)] = rs.getLong(2);
+        }, userId);
+        return sums;
+    }
+
+    /** Recomputes every stored enriched remanent of {@code userId} under {@code rules}. */
+    public void enrich(String userId, PeriodRuleSet rules) {
+        long[][] rows = {new long[16], new long[16]}; // ids, enriched remanents
+        int[] count = {0};
+        jdbcTemplate.query(REMANENTS, rs -> {
+            if (count[0] == rows[0].length) {
+                rows[0] = Arrays.copyOf(rows[0], count[0] * 2);
+                rows[1] = Arrays.copyOf(rows[1], count[0] * 2);
+            }
+            rows[0][count[0]] = rs.getLong(1);
+            rows[1][count[0]] = rules.remanentAt(rs.getLong(2), rs.getLong(3));
+            count[0]++;
+        }, userId);
+
+        long[] ids = rows[0];
+        long[] enriched = rows[1];
+        for (int from = 0; from < count[0]; from += batchSize) {
+            int start = from;
+            int end = Math.min(count[0], from + batchSize);
+            jdbcTemplate.execute(UPDATE_ENRICHED, (PreparedStatement ps) -> {
+                for (int i = start; i < end; i++) {
+                    ps.setLong(1, enriched[i]);
+                    ps.setLong(2, ids[i]);
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            });
+        }
+    }
+}
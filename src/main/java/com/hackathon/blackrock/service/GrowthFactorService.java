@@ -0,0 +1,8 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.utility.GrowthFactor;
+
+public interface GrowthFactorService {
+    GrowthFactor factor(double rate, int frequency, double inflation, int years);
+
+}
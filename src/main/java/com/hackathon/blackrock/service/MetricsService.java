@@ -0,0 +1,22 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.model.request.response.EndpointMetrics;
+
+import java.util.Map;
+
+/**
+ * Per-endpoint request instrumentation. Recording is lock-free; the request thread is
+ * bound to its endpoint between {@link #begin} and {@link #end} so services can attribute
+ * the rows they process without knowing which endpoint called them.
+ */
+public interface MetricsService {
+
+    void begin(String endpoint);
+
+    void end(String endpoint, long elapsedNanos, long allocatedBytes, boolean failed);
+
+    /** Counts transaction rows processed on behalf of the current request. */
+    void recordRows(long rows);
+
+    Map<String, EndpointMetrics> endpoints();
+}
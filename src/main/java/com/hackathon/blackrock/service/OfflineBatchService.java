@@ -0,0 +1,17 @@
+package com.hackathon.blackrock.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface OfflineBatchService {
+
+    /**
+     * Runs {@code operation} (parse, validate, filter, returns:nps or returns:index) over the
+     * transactions in {@code input} and writes NDJSON to {@code output}: one line per row, then
+     * a line with the totals or summary; returns write a single line. Profile and q/p/k periods
+     * come from the optional {@code request} JSON, or from the frame when the input is one.
+     *
+     * @return the number of rows read
+     */
+    long run(String operation, Path input, Path output, Path request, boolean reasonCodes) throws IOException;
+}
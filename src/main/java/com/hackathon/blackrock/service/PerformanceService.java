@@ -4,4 +4,7 @@ import com.hackathon.blackrock.model.request.response.PerformanceResponse;
 
 public interface PerformanceService {
     PerformanceResponse getMetrics();
+
+    /** The same metrics in the Prometheus text exposition format. */
+    String getPrometheusMetrics();
 }
@@ -0,0 +1,13 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+
+import java.util.List;
+
+public interface PeriodRuleService {
+    PeriodRuleSet compile(List<QPeriod> q, List<PPeriod> p, List<KPeriod> k);
+
+}
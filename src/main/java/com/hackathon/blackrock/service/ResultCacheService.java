@@ -0,0 +1,22 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.model.request.response.CacheMetrics;
+import com.hackathon.blackrock.utility.CachedResult;
+import com.hackathon.blackrock.utility.RequestDigest;
+import com.hackathon.blackrock.utility.WireFormat;
+
+import java.util.function.Supplier;
+
+public interface ResultCacheService {
+
+    /**
+     * The serialized result of {@code operation} on a request whose {@link RequestDigest} is
+     * {@code requestDigest}, computed with {@code compute} on a miss.
+     */
+    CachedResult get(String operation, String requestDigest, Supplier<?> compute);
+
+    /** As {@link #get(String, String, Supplier)}, with the result serialized as {@code format}. */
+    CachedResult get(String operation, String requestDigest, WireFormat format, Supplier<?> compute);
+
+    CacheMetrics metrics();
+}
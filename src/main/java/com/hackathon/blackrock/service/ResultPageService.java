@@ -0,0 +1,16 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.domain.ClassifiedBatch;
+import com.hackathon.blackrock.model.request.response.PageResponse;
+
+public interface ResultPageService {
+
+    /**
+     * The first {@code limit} rows of {@code result}. When more remain, the result is held on
+     * the server and the page carries a cursor to the next one.
+     */
+    PageResponse first(ClassifiedBatch result, int limit);
+
+    /** The page at {@code cursor}; 404 once the result has expired. */
+    PageResponse next(String cursor, int limit);
+}
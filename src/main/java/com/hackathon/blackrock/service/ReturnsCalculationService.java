@@ -1,10 +1,36 @@
 package com.hackathon.blackrock.service;
 
+import com.hackathon.blackrock.domain.TransactionBatch;
 import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.TransactionFrame;
+import com.hackathon.blackrock.model.request.response.BatchReturnsResponse;
 import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import com.hackathon.blackrock.utility.RangeSumIndex;
+import com.hackathon.blackrock.utility.TransactionTotals;
 
 public interface ReturnsCalculationService {
     ReturnsResponse calculate(ReturnsRequest request, boolean isNPS);
 
+    ReturnsResponse calculate(TransactionFrame frame, boolean isNPS);
+
+    /** Drops negative and duplicate-date rows, then applies the q and p rules to the rest. */
+    TransactionBatch prepare(TransactionBatch transactions, PeriodRuleSet rules);
+
+    /**
+     * Returns from running totals and the remanent already summed per k period, in paise and
+     * in the order of {@code rules.kPeriods()}.
+     */
+    ReturnsResponse calculate(TransactionTotals totals, long[] kRemanents, PeriodRuleSet rules,
+                              String taxRegime, int age, double wage, double inflation, boolean isNPS);
+
+    /**
+     * Remanent per k period of {@code rules}, in paise and in request order: two binary searches
+     * per period, so O(K log T) for K periods over an index of T transactions.
+     */
+    long[] sumByKPeriod(RangeSumIndex remanentIndex, PeriodRuleSet rules);
+
+    /** NPS and index returns for one user, preparing the transactions once for both. */
+    BatchReturnsResponse calculateBoth(ReturnsRequest request);
 
 }
@@ -0,0 +1,24 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.model.request.response.SessionResponse;
+
+import java.util.List;
+
+public interface ReturnsSessionService {
+
+    /** Opens a session with the request's periods and profile; its transactions, if any, are appended. */
+    SessionResponse create(ReturnsRequest request);
+
+    SessionResponse append(String sessionId, List<Transaction> transactions);
+
+    ReturnsResponse returns(String sessionId, boolean isNPS);
+
+    /** Returns for {@code kPeriods} in place of the session's own, over everything appended so far. */
+    ReturnsResponse returns(String sessionId, List<KPeriod> kPeriods, boolean isNPS);
+
+    void close(String sessionId);
+}
@@ -0,0 +1,9 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.utility.TaxRegime;
+
+public interface TaxRegimeService {
+
+    /** The named regime, or the configured default when {@code name} is null or blank. */
+    TaxRegime regime(String name);
+}
@@ -0,0 +1,27 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.model.request.response.StageMetrics;
+import com.hackathon.blackrock.utility.StageTrace;
+
+import java.util.Map;
+
+/**
+ * Sampled per-stage tracing of the request pipeline. A sampled request has a
+ * {@link StageTrace} bound to its thread between {@link #begin} and {@link #end}; stages
+ * outside a sampled request get {@link StageTrace.Span#NOOP}.
+ */
+public interface TracingService {
+
+    /** Decides whether this request is traced, {@code forced} overriding the sample rate. */
+    void begin(boolean forced);
+
+    /** Unbinds the current trace, if any, and folds it into the stage metrics. */
+    void end();
+
+    /** The trace bound to this thread, or null when the request is not sampled. */
+    StageTrace current();
+
+    StageTrace.Span start(String stage, long rowsIn);
+
+    Map<String, StageMetrics> stages();
+}
@@ -1,9 +1,35 @@
 package com.hackathon.blackrock.service;
 
+import com.hackathon.blackrock.domain.ClassificationSink;
+import com.hackathon.blackrock.domain.ClassifiedBatch;
+import com.hackathon.blackrock.domain.TransactionBatch;
 import com.hackathon.blackrock.model.request.FilterRequest;
+import com.hackathon.blackrock.model.request.TransactionFrame;
 import com.hackathon.blackrock.model.request.response.FilterResponse;
+import com.hackathon.blackrock.model.request.response.SummaryResponse;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
 
 public interface TransactionFilterService {
     FilterResponse filter(FilterRequest request);
 
+    ClassifiedBatch filter(TransactionBatch transactions, PeriodRuleSet rules);
+
+    /** Classifies {@code transactions} into {@code sink}, row by row and in order. */
+    void filter(TransactionBatch transactions, PeriodRuleSet rules, ClassificationSink sink);
+
+    FilterResponse filter(TransactionFrame frame);
+
+    /** The request's rows split into valid and invalid, without building the response. */
+    ClassifiedBatch classify(FilterRequest request);
+
+    ClassifiedBatch classify(TransactionFrame frame);
+
+    /** Classifies the frame's rows into {@code sink}, row by row and in order. */
+    void classify(TransactionFrame frame, ClassificationSink sink);
+
+    /** Counts, sums and rejections per reason, taken without keeping any rows. */
+    SummaryResponse summarize(FilterRequest request, boolean reasonCodes);
+
+    SummaryResponse summarize(TransactionFrame frame, boolean reasonCodes);
+
 }
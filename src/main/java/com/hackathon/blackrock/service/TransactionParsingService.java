@@ -1,11 +1,27 @@
 package com.hackathon.blackrock.service;
 
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.domain.TransactionBatch;
 import com.hackathon.blackrock.model.request.ExpenseRequest;
 import com.hackathon.blackrock.model.request.response.TransactionResponse;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TransactionParsingService {
     TransactionResponse parser(List<ExpenseRequest> expenses);
 
+    /** Parses into columns, leaving the conversion to {@link Transaction} to the caller. */
+    TransactionBatch parse(List<ExpenseRequest> expenses);
+
+    /**
+     * Parses expenses one at a time, handing each transaction to {@code sink} as soon as it
+     * is built. The returned response carries only the totals.
+     */
+    TransactionResponse parser(Iterator<ExpenseRequest> expenses, Consumer<Transaction> sink);
+
+    /** Totals only, computed in a single pass without building transactions. */
+    TransactionResponse totals(Iterator<ExpenseRequest> expenses);
+
 }
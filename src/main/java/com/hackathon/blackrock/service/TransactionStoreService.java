@@ -0,0 +1,23 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.model.request.response.StoredUserResponse;
+
+import java.util.List;
+
+public interface TransactionStoreService {
+
+    /**
+     * Replaces the user's profile and q/p/k periods, re-enriching their stored transactions,
+     * then stores the request's transactions, if any.
+     */
+    StoredUserResponse saveProfile(String userId, ReturnsRequest request);
+
+    /** Stores transactions for the user, dropping negatives, undated rows and dates already stored. */
+    StoredUserResponse append(String userId, List<Transaction> transactions);
+
+    /** Returns over everything stored for the user. */
+    ReturnsResponse returns(String userId, boolean isNPS);
+}
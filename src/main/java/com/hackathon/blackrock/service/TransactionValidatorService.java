@@ -1,9 +1,34 @@
 package com.hackathon.blackrock.service;
 
+import com.hackathon.blackrock.domain.ClassificationSink;
+import com.hackathon.blackrock.domain.ClassifiedBatch;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.TransactionFrame;
 import com.hackathon.blackrock.model.request.ValidatorRequest;
+import com.hackathon.blackrock.model.request.response.SummaryResponse;
 import com.hackathon.blackrock.model.request.response.ValidatorResponse;
 
 public interface TransactionValidatorService {
     ValidatorResponse validate(ValidatorRequest request);
 
+    ClassifiedBatch validate(TransactionBatch transactions);
+
+    /** Classifies {@code transactions} into {@code sink}, row by row and in order. */
+    void validate(TransactionBatch transactions, ClassificationSink sink);
+
+    ValidatorResponse validate(TransactionFrame frame);
+
+    /** The request's rows split into valid and invalid, without building the response. */
+    ClassifiedBatch classify(ValidatorRequest request);
+
+    ClassifiedBatch classify(TransactionFrame frame);
+
+    /** Classifies the frame's rows into {@code sink}, row by row and in order. */
+    void classify(TransactionFrame frame, ClassificationSink sink);
+
+    /** Counts, sums and rejections per reason, taken without keeping any rows. */
+    SummaryResponse summarize(ValidatorRequest request, boolean reasonCodes);
+
+    SummaryResponse summarize(TransactionFrame frame, boolean reasonCodes);
+
 }
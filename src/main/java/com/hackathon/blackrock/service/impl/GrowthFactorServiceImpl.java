@@ -0,0 +1,30 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackathon.blackrock.service.GrowthFactorService;
+import com.hackathon.blackrock.utility.GrowthFactor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class GrowthFactorServiceImpl implements GrowthFactorService {
+
+    private final Cache<FactorKey, GrowthFactor> cache;
+
+    public GrowthFactorServiceImpl(@Value("${blackrock.returns.growth-cache-size:1024}") int cacheSize) {
+        // lookups do not lock each other; a rarely used combination is evicted first
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    @Override
+    public GrowthFactor factor(double rate, int frequency, double inflation, int years) {
+        return cache.get(new FactorKey(rate, frequency, inflation, years),
+                key -> GrowthFactor.of(rate, frequency, inflation, years));
+    }
+
+    private record FactorKey(double rate, int frequency, double inflation, int years) {
+    }
+}
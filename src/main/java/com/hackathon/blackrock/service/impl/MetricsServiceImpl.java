@@ -0,0 +1,81 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.hackathon.blackrock.model.request.response.EndpointMetrics;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.utility.LatencyHistogram;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class MetricsServiceImpl implements MetricsService {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<EndpointStats> current = new ThreadLocal<>();
+
+    @Override
+    public void begin(String endpoint) {
+        current.set(stats(endpoint));
+    }
+
+    @Override
+    public void end(String endpoint, long elapsedNanos, long allocatedBytes, boolean failed) {
+        current.remove();
+        EndpointStats endpointStats = stats(endpoint);
+        endpointStats.latency.record(elapsedNanos);
+        if (allocatedBytes > 0) endpointStats.allocatedBytes.add(allocatedBytes);
+        if (failed) endpointStats.errors.increment();
+    }
+
+    @Override
+    public void recordRows(long rows) {
+        EndpointStats endpointStats = current.get();
+        if (endpointStats != null) endpointStats.rows.add(rows);
+    }
+
+    @Override
+    public Map<String, EndpointMetrics> endpoints() {
+        double uptimeSeconds = Math.max(1, ManagementFactory.getRuntimeMXBean().getUptime()) / 1000.0;
+        Map<String, EndpointMetrics> result = new TreeMap<>();
+        stats.forEach((endpoint, s) -> {
+            long requests = s.latency.count();
+            long rows = s.rows.sum();
+            result.put(endpoint, EndpointMetrics.builder()
+                    .requests(requests)
+                    .errors(s.errors.sum())
+                    .requestsPerSecond(round(requests / uptimeSeconds))
+                    .meanMs(round(s.latency.mean() / NANOS_PER_MILLI))
+                    .p50Ms(round(s.latency.percentile(0.50) / NANOS_PER_MILLI))
+                    .p99Ms(round(s.latency.percentile(0.99) / NANOS_PER_MILLI))
+                    .p999Ms(round(s.latency.percentile(0.999) / NANOS_PER_MILLI))
+                    .maxMs(round(s.latency.max() / NANOS_PER_MILLI))
+                    .rows(rows)
+                    .rowsPerSecond(round(rows / uptimeSeconds))
+                    .allocatedBytesPerRequest(requests == 0 ? 0 : s.allocatedBytes.sum() / requests)
+                    .build());
+        });
+        return result;
+    }
+
+    private EndpointStats stats(String endpoint) {
+        EndpointStats existing = stats.get(endpoint); // lock-free once the endpoint has been seen
+        return existing != null ? existing : stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+
+    private static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+    }
+}
@@ -0,0 +1,176 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.hackathon.blackrock.domain.ClassificationSink;
+import com.hackathon.blackrock.domain.RejectReason;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.TransactionFrame;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.OfflineBatchService;
+import com.hackathon.blackrock.service.PeriodRuleService;
+import com.hackathon.blackrock.service.ReturnsCalculationService;
+import com.hackathon.blackrock.service.TransactionFilterService;
+import com.hackathon.blackrock.service.TransactionValidatorService;
+import com.hackathon.blackrock.utility.ClassificationSummary;
+import com.hackathon.blackrock.utility.ClassifiedBatchWriter;
+import com.hackathon.blackrock.utility.MappedInput;
+import com.hackathon.blackrock.utility.Money;
+import com.hackathon.blackrock.utility.TransactionFileReader;
+import com.hackathon.blackrock.utility.TransactionFrameCodec;
+import com.hackathon.blackrock.utility.TransactionTotals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Service
+public class OfflineBatchServiceImpl implements OfflineBatchService {
+
+    private static final Set<String> OPERATIONS = Set.of("parse", "validate", "filter", "returns:nps", "returns:index");
+    private static final int OUTPUT_BUFFER = 1 << 20;
+
+    @Autowired
+    private TransactionValidatorService validatorService;
+
+    @Autowired
+    private TransactionFilterService filterService;
+
+    @Autowired
+    private ReturnsCalculationService returnsService;
+
+    @Autowired
+    private PeriodRuleService periodRuleService;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final int window;
+
+    public OfflineBatchServiceImpl(ObjectMapper objectMapper,
+                                   @Value("${blackrock.batch.window:256MB}") DataSize window) {
+        this.objectMapper = objectMapper;
+        // lines are separated explicitly; the buffered stream is flushed once at the end
+        this.lineWriter = objectMapper.writer()
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.window = Math.toIntExact(window.toBytes());
+    }
+
+    @Override
+    public long run(String operation, Path input, Path output, Path request, boolean reasonCodes) throws IOException {
+        if (!OPERATIONS.contains(operation)) {
+            throw new IllegalArgumentException("Unknown operation '" + operation + "', expected one of " + OPERATIONS);
+        }
+        // the tree is kept to tell a field set to 0 from one left out
+        JsonNode profileFields = request == null ? objectMapper.createObjectNode()
+                : objectMapper.readTree(request.toFile());
+        ReturnsRequest profile = objectMapper.treeToValue(profileFields, ReturnsRequest.class);
+        TransactionFileReader.Format format = TransactionFileReader.Format.of(input);
+        if (operation.equals("parse") && format == TransactionFileReader.Format.FRAME) {
+            throw new IllegalArgumentException("Frames already carry parsed transactions; parse reads CSV or NDJSON");
+        }
+
+        try (MappedInput in = MappedInput.open(input, window);
+             OutputStream file = new BufferedOutputStream(Files.newOutputStream(output), OUTPUT_BUFFER);
+             JsonGenerator out = lineWriter.createGenerator(file)) {
+            if (operation.equals("parse")) return parse(in, format, out);
+
+            TransactionFrame frame = load(in, format, profile, profileFields);
+            TransactionBatch transactions = frame.getTransactions();
+            switch (operation) {
+                case "validate" -> classify(out, reasonCodes, sink -> validatorService.validate(transactions, sink));
+                case "filter" -> classify(out, reasonCodes, sink -> filterService.filter(transactions,
+                        periodRuleService.compile(frame.getQ(), frame.getP(), frame.getK()), sink));
+                default -> writeLine(out, returnsService.calculate(frame, operation.equals("returns:nps")));
+            }
+            return transactions.size();
+        }
+    }
+
+    /** Parse never looks back, so rows are written as they are read and nothing is kept. */
+    private long parse(MappedInput in, TransactionFileReader.Format format, JsonGenerator out) throws IOException {
+        ClassifiedBatchWriter writer = new ClassifiedBatchWriter(out, false);
+        TransactionTotals totals = new TransactionTotals();
+        long rows = TransactionFileReader.read(in, format, objectMapper, (timestamp, amount, ceiling, remanent, inPaise) -> {
+            // any ceiling in the file is recomputed, as /transactions:parse does from the amount alone
+            long parsedCeiling = Money.ceiling(amount);
+            long parsedRemanent = Money.remanent(amount);
+            totals.add(amount, parsedCeiling, parsedRemanent);
+            writer.writeTransaction(timestamp, amount, parsedCeiling, parsedRemanent, null);
+            out.writeRaw('\n');
+        });
+        metricsService.recordRows(rows);
+        writeLine(out, totals.toResponse(null));
+        return rows;
+    }
+
+    /**
+     * Validate, filter and returns see the whole history at once (duplicates, k sums), so the
+     * rows are held in columns; profile fields and periods in the request take precedence over
+     * those in a frame.
+     */
+    private TransactionFrame load(MappedInput in, TransactionFileReader.Format format, ReturnsRequest request,
+                                  JsonNode requestFields) throws IOException {
+        TransactionFrame frame;
+        if (format == TransactionFileReader.Format.FRAME) {
+            frame = TransactionFrameCodec.decode(in.mapAll());
+        } else {
+            frame = new TransactionFrame();
+            TransactionBatch transactions = new TransactionBatch();
+            TransactionFileReader.read(in, format, objectMapper, transactions::add);
+            frame.setTransactions(transactions);
+        }
+        if (request.getUserId() != null) frame.setUserId(request.getUserId());
+        if (requestFields.hasNonNull("age")) frame.setAge(request.getAge());
+        if (requestFields.hasNonNull("wage")) frame.setWage(request.getWage());
+        if (requestFields.hasNonNull("inflation")) frame.setInflation(request.getInflation());
+        if (request.getTaxRegime() != null) frame.setTaxRegime(request.getTaxRegime());
+        if (request.getQ() != null) frame.setQ(request.getQ());
+        if (request.getP() != null) frame.setP(request.getP());
+        if (request.getK() != null) frame.setK(request.getK());
+        return frame;
+    }
+
+    private void classify(JsonGenerator out, boolean reasonCodes, Consumer<ClassificationSink> run) {
+        ClassifiedBatchWriter writer = new ClassifiedBatchWriter(out, reasonCodes);
+        ClassificationSummary summary = new ClassificationSummary();
+        run.accept(new ClassificationSink() {
+            @Override
+            public void accept(TransactionBatch source, int row, long remanent, Boolean inKPeriod) {
+                writer.writeTransaction(source.timestamp(row), source.amount(row), source.ceiling(row), remanent,
+                        inKPeriod);
+                out.writeRaw('\n');
+                summary.accept(source, row, remanent, inKPeriod);
+            }
+
+            @Override
+            public void reject(TransactionBatch source, int row, RejectReason reason) {
+                writer.writeInvalid(source.timestamp(row), source.amount(row), source.ceiling(row),
+                        source.remanent(row), reason);
+                out.writeRaw('\n');
+                summary.reject(source, row, reason);
+            }
+        });
+        writeLine(out, summary.toResponse(reasonCodes));
+    }
+
+    private void writeLine(JsonGenerator out, Object value) {
+        lineWriter.writeValue(out, value);
+        out.writeRaw('\n');
+    }
+}
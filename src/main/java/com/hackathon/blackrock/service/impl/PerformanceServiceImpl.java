@@ -1,18 +1,40 @@
 package com.hackathon.blackrock.service.impl;
 
+import com.hackathon.blackrock.model.request.response.CacheMetrics;
+import com.hackathon.blackrock.model.request.response.EndpointMetrics;
+import com.hackathon.blackrock.model.request.response.GcMetrics;
+import com.hackathon.blackrock.model.request.response.MemoryMetrics;
 import com.hackathon.blackrock.model.request.response.PerformanceResponse;
+import com.hackathon.blackrock.model.request.response.StageMetrics;
+import com.hackathon.blackrock.service.MetricsService;
 import com.hackathon.blackrock.service.PerformanceService;
+import com.hackathon.blackrock.service.ResultCacheService;
+import com.hackathon.blackrock.service.TracingService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.ThreadMXBean;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class PerformanceServiceImpl implements PerformanceService {
-    private static final Instant APP_START_TIME = Instant.now();
+
+    @Autowired
+    private ResultCacheService resultCache;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private TracingService tracingService;
 
 
     @Override
@@ -27,11 +49,80 @@ public class PerformanceServiceImpl implements PerformanceService {
                 .time(uptime)
                 .memory(memory)
                 .threads(threads)
+                .cache(resultCache.metrics())
+                .memoryDetail(computeMemoryDetail())
+                .gc(computeGcMetrics())
+                .endpoints(metricsService.endpoints())
+                .stages(tracingService.stages())
                 .build();
     }
 
+    @Override
+    public String getPrometheusMetrics() {
+        PerformanceResponse metrics = getMetrics();
+        StringBuilder out = new StringBuilder(4096);
+
+        gauge(out, "blackrock_uptime_seconds", "JVM uptime",
+                ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+        gauge(out, "blackrock_threads", "Live JVM threads", metrics.getThreads());
+
+        MemoryMetrics memory = metrics.getMemoryDetail();
+        header(out, "blackrock_memory_bytes", "JVM memory in use by area", "gauge");
+        sample(out, "blackrock_memory_bytes", "area", "heap", memory.getHeapUsedBytes());
+        sample(out, "blackrock_memory_bytes", "area", "nonheap", memory.getNonHeapUsedBytes());
+        sample(out, "blackrock_memory_bytes", "area", "direct", memory.getDirectBufferBytes());
+        sample(out, "blackrock_memory_bytes", "area", "mapped", memory.getMappedBufferBytes());
+        gauge(out, "blackrock_memory_heap_max_bytes", "Maximum heap size", memory.getHeapMaxBytes());
+
+        header(out, "blackrock_gc_collections_total", "Garbage collections by collector", "counter");
+        for (GcMetrics gc : metrics.getGc()) {
+            sample(out, "blackrock_gc_collections_total", "gc", gc.getName(), gc.getCollections());
+        }
+        header(out, "blackrock_gc_time_seconds_total", "Time spent in garbage collection by collector", "counter");
+        for (GcMetrics gc : metrics.getGc()) {
+            sample(out, "blackrock_gc_time_seconds_total", "gc", gc.getName(), gc.getTimeMs() / 1000.0);
+        }
+
+        CacheMetrics cache = metrics.getCache();
+        header(out, "blackrock_cache_requests_total", "Result cache lookups by outcome", "counter");
+        sample(out, "blackrock_cache_requests_total", "result", "hit", cache.getHits());
+        sample(out, "blackrock_cache_requests_total", "result", "miss", cache.getMisses());
+        counter(out, "blackrock_cache_evictions_total", "Result cache evictions", cache.getEvictions());
+        gauge(out, "blackrock_cache_size_bytes", "Weighted size of the result cache", cache.getSizeBytes());
+
+        Map<String, EndpointMetrics> endpoints = metrics.getEndpoints();
+        header(out, "blackrock_requests_total", "Requests by endpoint", "counter");
+        endpoints.forEach((e, m) -> sample(out, "blackrock_requests_total", "endpoint", e, m.getRequests()));
+        header(out, "blackrock_request_errors_total", "Failed requests by endpoint", "counter");
+        endpoints.forEach((e, m) -> sample(out, "blackrock_request_errors_total", "endpoint", e, m.getErrors()));
+        header(out, "blackrock_rows_total", "Transaction rows processed by endpoint", "counter");
+        endpoints.forEach((e, m) -> sample(out, "blackrock_rows_total", "endpoint", e, m.getRows()));
+        header(out, "blackrock_request_latency_seconds", "Request latency by endpoint", "summary");
+        endpoints.forEach((e, m) -> {
+            quantile(out, e, "0.5", m.getP50Ms());
+            quantile(out, e, "0.99", m.getP99Ms());
+            quantile(out, e, "0.999", m.getP999Ms());
+        });
+        header(out, "blackrock_request_allocated_bytes", "Mean bytes allocated per request by endpoint", "gauge");
+        endpoints.forEach((e, m) ->
+                sample(out, "blackrock_request_allocated_bytes", "endpoint", e, m.getAllocatedBytesPerRequest()));
+
+        Map<String, StageMetrics> stages = metrics.getStages();
+        header(out, "blackrock_stage_calls_total", "Sampled pipeline stage executions", "counter");
+        stages.forEach((s, m) -> sample(out, "blackrock_stage_calls_total", "stage", s, m.getCount()));
+        header(out, "blackrock_stage_rows_total", "Rows entering sampled pipeline stages", "counter");
+        stages.forEach((s, m) -> sample(out, "blackrock_stage_rows_total", "stage", s, m.getRowsIn()));
+        header(out, "blackrock_stage_latency_seconds", "Sampled pipeline stage latency", "summary");
+        stages.forEach((s, m) -> {
+            quantile(out, "blackrock_stage_latency_seconds", "stage", s, "0.5", m.getP50Ms());
+            quantile(out, "blackrock_stage_latency_seconds", "stage", s, "0.99", m.getP99Ms());
+        });
+        return out.toString();
+    }
+
     private String computeUptime() {
-        Duration uptime = Duration.between(APP_START_TIME, Instant.now());
+        // JVM uptime, so it counts from process start rather than from when this class loaded
+        Duration uptime = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
 
         long hours   = uptime.toHours();
         long minutes = uptime.toMinutesPart();
@@ -60,5 +151,73 @@ public class PerformanceServiceImpl implements PerformanceService {
         return threadBean.getThreadCount();
     }
 
-}
+    private MemoryMetrics computeMemoryDetail() {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        long direct = 0, mapped = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) direct = pool.getMemoryUsed();
+            else if ("mapped".equals(pool.getName())) mapped = pool.getMemoryUsed();
+        }
+        return MemoryMetrics.builder()
+                .heapUsedBytes(memoryBean.getHeapMemoryUsage().getUsed())
+                .heapCommittedBytes(memoryBean.getHeapMemoryUsage().getCommitted())
+                .heapMaxBytes(memoryBean.getHeapMemoryUsage().getMax())
+                .nonHeapUsedBytes(memoryBean.getNonHeapMemoryUsage().getUsed())
+                .directBufferBytes(direct)
+                .mappedBufferBytes(mapped)
+                .build();
+    }
+
+    private List<GcMetrics> computeGcMetrics() {
+        List<GcMetrics> result = new ArrayList<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result.add(GcMetrics.builder()
+                    .name(gc.getName())
+                    .collections(Math.max(0, gc.getCollectionCount()))
+                    .timeMs(Math.max(0, gc.getCollectionTime()))
+                    .build());
+        }
+        return result;
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        header(out, name, help, "gauge");
+        out.append(name).append(' ').append(format(value)).append('\n');
+    }
 
+    private static void counter(StringBuilder out, String name, String help, double value) {
+        header(out, name, help, "counter");
+        out.append(name).append(' ').append(format(value)).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String value, double sample) {
+        out.append(name).append('{').append(label).append("=\"").append(escape(value)).append("\"} ")
+                .append(format(sample)).append('\n');
+    }
+
+    private static void quantile(StringBuilder out, String endpoint, String quantile, double millis) {
+        quantile(out, "blackrock_request_latency_seconds", "endpoint", endpoint, quantile, millis);
+    }
+
+    private static void quantile(StringBuilder out, String name, String label, String value,
+                                 String quantile, double millis) {
+        out.append(name).append('{').append(label).append("=\"").append(escape(value))
+                .append("\",quantile=\"").append(quantile).append("\"} ")
+                .append(format(millis / 1000.0)).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : String.format(Locale.ROOT, "%.6g", value);
+    }
+}
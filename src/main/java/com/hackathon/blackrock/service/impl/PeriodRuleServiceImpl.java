@@ -0,0 +1,69 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.service.PeriodRuleService;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class PeriodRuleServiceImpl implements PeriodRuleService {
+
+    private final Map<PeriodKey, PeriodRuleSet> cache;
+
+    public PeriodRuleServiceImpl(@Value("${blackrock.periods.cache-size:256}") int cacheSize) {
+        // access-ordered, so the least recently used config is evicted first
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PeriodKey, PeriodRuleSet> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public PeriodRuleSet compile(List<QPeriod> q, List<PPeriod> p, List<KPeriod> k) {
+        PeriodKey key = new PeriodKey(copy(q), copy(p), copy(k));
+
+        synchronized (cache) {
+            PeriodRuleSet cached = cache.get(key);
+            if (cached != null) return cached;
+        }
+
+        // compiled outside the lock; a concurrent miss on the same key just builds it twice
+        PeriodRuleSet compiled = PeriodRuleSet.compile(key.q(), key.p(), key.k());
+        synchronized (cache) {
+            cache.putIfAbsent(key, compiled);
+        }
+        return compiled;
+    }
+
+    private static <T> List<T> copy(List<T> periods) {
+        return periods == null ? List.of() : List.copyOf(periods);
+    }
+
+    /** Content key: periods compare by value, and the hash is computed once per request. */
+    private record PeriodKey(List<QPeriod> q, List<PPeriod> p, List<KPeriod> k, int hash) {
+
+        PeriodKey(List<QPeriod> q, List<PPeriod> p, List<KPeriod> k) {
+            this(q, p, k, 31 * (31 * q.hashCode() + p.hashCode()) + k.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PeriodKey other && hash == other.hash
+                    && q.equals(other.q) && p.equals(other.p) && k.equals(other.k);
+        }
+    }
+}
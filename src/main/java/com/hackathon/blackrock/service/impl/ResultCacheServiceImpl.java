@@ -0,0 +1,106 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hackathon.blackrock.model.request.response.CacheMetrics;
+import com.hackathon.blackrock.service.ResultCacheService;
+import com.hackathon.blackrock.service.TracingService;
+import com.hackathon.blackrock.utility.CachedResult;
+import com.hackathon.blackrock.utility.StageTrace;
+import com.hackathon.blackrock.utility.WireFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Service
+public class ResultCacheServiceImpl implements ResultCacheService {
+
+    // rough per-entry overhead on top of the body: key, etag and cache node
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Map<WireFormat, ObjectMapper> writers = new EnumMap<>(WireFormat.class);
+    private final TracingService tracingService;
+    private final boolean enabled;
+    private final Cache<String, CachedResult> cache;
+
+    public ResultCacheServiceImpl(ObjectMapper objectMapper, SmileMapper smileMapper, CBORMapper cborMapper,
+                                  TracingService tracingService,
+                                  @Value("${blackrock.cache.enabled:true}") boolean enabled,
+                                  @Value("${blackrock.cache.max-size:64MB}") DataSize maxSize,
+                                  @Value("${blackrock.cache.ttl:5m}") Duration ttl) {
+        this.writers.put(WireFormat.JSON, objectMapper);
+        this.writers.put(WireFormat.SMILE, smileMapper);
+        this.writers.put(WireFormat.CBOR, cborMapper);
+        this.tracingService = tracingService;
+        this.enabled = enabled;
+        // Caffeine evicts by W-TinyLFU, weighing each entry by its serialized size
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, CachedResult>weigher((key, result) -> key.length() + result.body().length + ENTRY_OVERHEAD)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public CachedResult get(String operation, String requestDigest, Supplier<?> compute) {
+        return get(operation, requestDigest, WireFormat.JSON, compute);
+    }
+
+    @Override
+    public CachedResult get(String operation, String requestDigest, WireFormat format, Supplier<?> compute) {
+        if (!enabled) return serialize(compute.get(), format);
+
+        // digested from the bound fields in a fixed order, so a hit never re-serializes the request
+        String key = operation + ':' + format + ':' + requestDigest;
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null) return cached;
+
+        // computed outside the cache so a slow request does not block others; a concurrent
+        // miss on the same key just computes it twice
+        CachedResult result = serialize(compute.get(), format);
+        cache.put(key, result);
+        return result;
+    }
+
+    @Override
+    public CacheMetrics metrics() {
+        CacheStats stats = cache.stats();
+        return CacheMetrics.builder()
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .hitRate(Math.round(stats.hitRate() * 10_000) / 10_000.0)
+                .entries(cache.estimatedSize())
+                .sizeBytes(cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .build();
+    }
+
+    private CachedResult serialize(Object response, WireFormat format) {
+        StageTrace.Span stage = tracingService.start("serialize", 1);
+        byte[] body = writers.get(format).writeValueAsBytes(response);
+        stage.end(body.length);
+        // weak, so the servlet container may still gzip the body for clients that accept it
+        return new CachedResult(body, "W/\"" + sha256(body).substring(0, 32) + '"', format.mediaType());
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackathon.blackrock.domain.ClassifiedBatch;
+import com.hackathon.blackrock.domain.InvalidTransaction;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.response.PageResponse;
+import com.hackathon.blackrock.service.ResultPageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class ResultPageServiceImpl implements ResultPageService {
+
+    // four long columns and a flag or reason per row, plus the cache entry itself
+    private static final int ROW_BYTES = 40;
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final int maxLimit;
+    private final Cache<String, ClassifiedBatch> results;
+
+    public ResultPageServiceImpl(@Value("${blackrock.pages.max-size:256MB}") DataSize maxSize,
+                                 @Value("${blackrock.pages.ttl:5m}") Duration ttl,
+                                 @Value("${blackrock.pages.max-limit:10000}") int maxLimit) {
+        this.maxLimit = maxLimit;
+        // the ttl restarts on every page read, so a client paging steadily keeps its result
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, ClassifiedBatch>weigher((id, result) -> result.size() * ROW_BYTES + ENTRY_OVERHEAD)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    @Override
+    public PageResponse first(ClassifiedBatch result, int limit) {
+        int pageSize = pageSize(limit);
+        String id = result.size() > pageSize ? UUID.randomUUID().toString() : null;
+        if (id != null) results.put(id, result);
+        return page(id, result, 0, pageSize);
+    }
+
+    @Override
+    public PageResponse next(String cursor, int limit) {
+        int separator = cursor == null ? -1 : cursor.lastIndexOf(':');
+        int offset;
+        try {
+            offset = separator < 0 ? -1 : Integer.parseInt(cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            offset = -1;
+        }
+        if (offset < 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor: " + cursor);
+
+        String id = cursor.substring(0, separator);
+        ClassifiedBatch result = results.getIfPresent(id);
+        if (result == null || offset > result.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired cursor: " + cursor);
+        }
+        return page(id, result, offset, pageSize(limit));
+    }
+
+    private int pageSize(int limit) {
+        if (limit < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        return Math.min(limit, maxLimit);
+    }
+
+    // rows [offset, offset + pageSize) of the invalid rows followed by the valid ones
+    private PageResponse page(String id, ClassifiedBatch result, int offset, int pageSize) {
+        TransactionBatch invalid = result.invalid();
+        TransactionBatch valid = result.valid();
+        int end = (int) Math.min((long) offset + pageSize, result.size());
+
+        List<InvalidTransaction> invalidRows = new ArrayList<>();
+        for (int row = offset; row < Math.min(end, invalid.size()); row++) {
+            invalidRows.add(invalid.toInvalid(row, result.reason(row).message()));
+        }
+        List<Transaction> validRows = new ArrayList<>();
+        for (int row = Math.max(offset, invalid.size()); row < end; row++) {
+            validRows.add(valid.toTransaction(row - invalid.size()));
+        }
+        // the result stays until it expires, so any page, the last included, can be fetched again
+        String next = end < result.size() ? id + ':' + end : null;
+        return PageResponse.builder()
+                .invalid(invalidRows)
+                .valid(validRows)
+                .invalidCount(invalid.size())
+                .validCount(valid.size())
+                .next(next)
+                .build();
+    }
+}
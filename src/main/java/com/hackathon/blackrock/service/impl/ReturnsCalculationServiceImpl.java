@@ -2,169 +2,247 @@ package com.hackathon.blackrock.service.impl;
 
 import com.hackathon.blackrock.domain.*;
 import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.TransactionFrame;
+import com.hackathon.blackrock.model.request.response.BatchReturnsResponse;
 import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.service.GrowthFactorService;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.PeriodRuleService;
 import com.hackathon.blackrock.service.ReturnsCalculationService;
-import com.hackathon.blackrock.utility.TaxCalculator;
+import com.hackathon.blackrock.service.TaxRegimeService;
+import com.hackathon.blackrock.service.TracingService;
+import com.hackathon.blackrock.utility.BatchExecutor;
+import com.hackathon.blackrock.utility.DuplicateDetector;
+import com.hackathon.blackrock.utility.GrowthFactor;
+import com.hackathon.blackrock.utility.Money;
+import com.hackathon.blackrock.utility.PeriodIndex;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import com.hackathon.blackrock.utility.RangeSumIndex;
+import com.hackathon.blackrock.utility.StageTrace;
+import com.hackathon.blackrock.utility.TaxRegime;
+import com.hackathon.blackrock.utility.TransactionTotals;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class ReturnsCalculationServiceImpl implements ReturnsCalculationService {
-    private static final double NPS_RATE = 0.0711;
-    private static final double IDX_RATE = 0.1449;
-
-    private static final int COMPOUND_FREQ = 1;
-
     private static final int RETIREMENT_AGE = 60;
     private static final int MIN_INVESTMENT_YEARS = 5;
 
-    @Override
-    public ReturnsResponse calculate(ReturnsRequest request, boolean isNPS){
-        if(request==null || request.getTransactions()==null){
-            return ReturnsResponse.builder()
-                    .totalTransactionAmount(0)
-                    .totalCeiling(0)
-                    .savingsByDates(List.of())
-                    .build();
-        }
-
-        List<Transaction> validTransactions = filterValidTransactions(request.getTransactions());
+    private static final byte VALID = 0;
+    private static final byte SKIPPED = 1; // negative or a repeated date
 
-        List<Transaction> enrichedTransactions = applyPeriodRules(validTransactions, request.getQ(), request.getP());
+    @Autowired
+    private PeriodRuleService periodRuleService;
 
+    @Autowired
+    private BatchExecutor batchExecutor;
 
+    @Autowired
+    private MetricsService metricsService;
 
-        double totalAmount = enrichedTransactions.stream().mapToDouble(Transaction::getAmount).sum();
-        double totalCeiling = enrichedTransactions.stream().mapToDouble(Transaction::getCeiling).sum();
+    @Autowired
+    private TracingService tracingService;
 
-        double annualIncome = request.getWage() * 12;
-        int    years   = computeInvestmentYears(request.getAge());
-        double rate    = isNPS ? NPS_RATE : IDX_RATE;
+    @Autowired
+    private TaxRegimeService taxRegimeService;
 
-        List<KPeriodResult> saveByDates = new ArrayList<>();
+    @Autowired
+    private GrowthFactorService growthFactorService;
 
-        for(KPeriod kPeriod : request.getK()){
-            double investmentAmount = enrichedTransactions.stream()
-                    .filter(transaction -> isWithinRange(transaction.getDate(), kPeriod.getStart(), kPeriod.getEnd()))
-                    .mapToDouble(Transaction::getRemanent)
-                    .sum();
+    @Value("${blackrock.returns.nps.rate:0.0711}")
+    private double npsRate;
 
-            double finalAmount = compoundInterest(investmentAmount, rate, years);
+    @Value("${blackrock.returns.nps.compound-frequency:1}")
+    private int npsCompoundFrequency;
 
-            double realAmount  = inflationAdjust(finalAmount, request.getInflation(), years);
+    @Value("${blackrock.returns.index.rate:0.1449}")
+    private double indexRate;
 
-            double profit = realAmount - finalAmount;
+    @Value("${blackrock.returns.index.compound-frequency:1}")
+    private int indexCompoundFrequency;
 
-            double taxBenefit  = 0;
-            if (isNPS) {
-                taxBenefit = TaxCalculator.computeTaxBenefit(investmentAmount, annualIncome);
-            }
+    @PostConstruct
+    void checkCompoundFrequencies() {
+        // checked at startup, so a bad setting fails the boot rather than every returns request
+        if (npsCompoundFrequency < 1 || indexCompoundFrequency < 1) {
+            throw new IllegalStateException("blackrock.returns.*.compound-frequency must be at least 1, got nps="
+                    + npsCompoundFrequency + ", index=" + indexCompoundFrequency);
+        }
+    }
 
-            saveByDates.add(KPeriodResult.builder()
-                    .start(kPeriod.getStart())
-                    .end(kPeriod.getEnd())
-                    .amount(round(investmentAmount))
-                    .profit(round(profit))
-                    .taxBenefit(round(taxBenefit))
-                    .build());
+    @Override
+    public ReturnsResponse calculate(ReturnsRequest request, boolean isNPS){
+        if(request==null || request.getTransactions()==null){
+            return ReturnsResponse.builder()
+                    .totalTransactionAmount(0)
+                    .totalCeiling(0)
+                    .savingsByDates(List.of())
+                    .build();
+        }
 
+        PeriodRuleSet rules = periodRuleService.compile(request.getQ(), request.getP(), request.getK());
 
+        TransactionBatch enrichedTransactions = prepare(TransactionBatch.of(request.getTransactions()), rules);
 
-        }
-        return ReturnsResponse.builder()
-                .totalTransactionAmount(round(totalAmount))
-                .totalCeiling(round(totalCeiling))
-                .savingsByDates(saveByDates)
-                .build();
+        return calculate(TransactionTotals.of(enrichedTransactions),
+                sumByKPeriod(indexRemanents(enrichedTransactions), rules), rules,
+                taxRegimeService.regime(request.getTaxRegime()),
+                request.getAge(), request.getWage(), request.getInflation(), isNPS);
+    }
 
+    @Override
+    public ReturnsResponse calculate(TransactionFrame frame, boolean isNPS) {
+        PeriodRuleSet rules = periodRuleService.compile(frame.getQ(), frame.getP(), frame.getK());
 
+        TransactionBatch enrichedTransactions = prepare(frame.getTransactions(), rules);
 
+        return calculate(TransactionTotals.of(enrichedTransactions),
+                sumByKPeriod(indexRemanents(enrichedTransactions), rules), rules,
+                taxRegimeService.regime(frame.getTaxRegime()),
+                frame.getAge(), frame.getWage(), frame.getInflation(), isNPS);
     }
 
-    private List<Transaction> filterValidTransactions(List<Transaction> transactions) {
-        List<Transaction> valid       = new ArrayList<>();
-        Set<LocalDateTime> seenDates  = new HashSet<>();
-
-        for (Transaction txn : transactions) {
-            if (txn.getAmount() < 0)                  continue; // negative
-            if (seenDates.contains(txn.getDate()))     continue; // duplicate
-            seenDates.add(txn.getDate());
-            valid.add(txn);
+    @Override
+    public TransactionBatch prepare(TransactionBatch transactions, PeriodRuleSet rules) {
+        int size = transactions.size();
+        metricsService.recordRows(size);
+        StageTrace.Span stage = tracingService.start("prepare", size);
+        long[] timestamps = transactions.timestampColumn();
+        long[] amounts = transactions.amountColumn();
+
+        // Q replaces the remanent (latest start wins), then ALL matching P extras stack on top;
+        // lookups are independent per row, duplicates are resolved afterwards in row order
+        byte[] status = new byte[size];
+        long[] remanents = new long[size];
+        batchExecutor.forEachRange(size, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                if (amounts[row] < 0) {
+                    status[row] = SKIPPED;
+                    continue;
+                }
+                remanents[row] = rules.remanentAt(timestamps[row], transactions.remanent(row));
+            }
+        });
+        DuplicateDetector.markDuplicates(batchExecutor, timestamps, size,
+                status, VALID, VALID, SKIPPED);
+
+        TransactionBatch valid = new TransactionBatch(size);
+        for (int row = 0; row < size; row++) {
+            if (status[row] != VALID) continue;
+            valid.setRemanent(valid.addRow(transactions, row), remanents[row]);
         }
+        stage.end(valid.size());
         return valid;
     }
 
-    private List<Transaction> applyPeriodRules(List<Transaction> transactions,
-                                               List<QPeriod> qPeriods,
-                                               List<PPeriod> pPeriods) {
-        List<Transaction> result = new ArrayList<>();
-
-        for (Transaction txn : transactions) {
-            double remanent = txn.getRemanent();
-
-            // Q: replace remanent if transaction falls in a q period
-            QPeriod matchedQ = findMatchingQPeriod(txn.getDate(), qPeriods);
-            if (matchedQ != null) {
-                remanent = matchedQ.getFixed();
-            }
-
-            // P: add ALL matching p period extras on top
-            double totalExtra = sumMatchingPPeriods(txn.getDate(), pPeriods);
-            remanent += totalExtra;
+    @Override
+    public ReturnsResponse calculate(TransactionTotals totals, long[] kRemanents, PeriodRuleSet rules,
+                                     String taxRegime, int age, double wage, double inflation, boolean isNPS) {
+        return calculate(totals, kRemanents, rules, taxRegimeService.regime(taxRegime),
+                age, wage, inflation, isNPS);
+    }
 
-            // Build new transaction with updated remanent — immutable approach
-            result.add(Transaction.builder()
-                    .date(txn.getDate())
-                    .amount(txn.getAmount())
-                    .ceiling(txn.getCeiling())
-                    .remanent(remanent)
-                    .build());
+    @Override
+    public BatchReturnsResponse calculateBoth(ReturnsRequest request) {
+        if(request==null || request.getTransactions()==null){
+            return BatchReturnsResponse.builder()
+                    .userId(request==null ? null : request.getUserId())
+                    .nps(calculate(request, true))
+                    .index(calculate(request, false))
+                    .build();
         }
-        return result;
+        PeriodRuleSet rules = periodRuleService.compile(request.getQ(), request.getP(), request.getK());
+
+        // validation, period enrichment, totals and the remanent index are shared by both products
+        TransactionBatch enrichedTransactions = prepare(TransactionBatch.of(request.getTransactions()), rules);
+        TransactionTotals totals = TransactionTotals.of(enrichedTransactions);
+        long[] kRemanents = sumByKPeriod(indexRemanents(enrichedTransactions), rules);
+        TaxRegime taxRegime = taxRegimeService.regime(request.getTaxRegime());
+
+        return BatchReturnsResponse.builder()
+                .userId(request.getUserId())
+                .nps(calculate(totals, kRemanents, rules, taxRegime,
+                        request.getAge(), request.getWage(), request.getInflation(), true))
+                .index(calculate(totals, kRemanents, rules, taxRegime,
+                        request.getAge(), request.getWage(), request.getInflation(), false))
+                .build();
     }
 
-    private QPeriod findMatchingQPeriod(LocalDateTime date, List<QPeriod> qPeriods) {
-        if (qPeriods == null || qPeriods.isEmpty()) return null;
-
-        QPeriod best = null;
+    private ReturnsResponse calculate(TransactionTotals totals, long[] kRemanents, PeriodRuleSet rules,
+                                      TaxRegime taxRegime, int age, double wage, double inflation, boolean isNPS) {
+        StageTrace.Span stage = tracingService.start(isNPS ? "returns:nps" : "returns:index", kRemanents.length);
+        int    years   = computeInvestmentYears(age);
+        // rate, inflation and years are fixed per request, so every k period shares one factor
+        GrowthFactor growth = isNPS
+                ? growthFactorService.factor(npsRate, npsCompoundFrequency, inflation, years)
+                : growthFactorService.factor(indexRate, indexCompoundFrequency, inflation, years);
+
+        List<KPeriod> kPeriods = rules.kPeriods();
+        double[] investmentAmounts = new double[kPeriods.size()];
+        for (int i = 0; i < kPeriods.size(); i++) {
+            investmentAmounts[i] = Money.toRupees(kRemanents[i]);
+        }
 
-        for (QPeriod q : qPeriods) {
-            if (!isWithinRange(date, q.getStart(), q.getEnd())) continue;
+        // annual income is fixed per request, so its tax is computed once for every k period
+        double[] taxBenefits = isNPS
+                ? taxRegime.assess(wage * 12).benefits(investmentAmounts)
+                : new double[kPeriods.size()];
 
-            if (best == null) {
-                best = q;
-            } else {
-                int cmp = q.getStart().compareTo(best.getStart());
-                if (cmp > 0) best = q; // later start wins
-                // cmp == 0 → tie → keep first (best already set)
-                // cmp < 0  → earlier start → skip
-            }
-        }
-        return best;
-    }
+        List<KPeriodResult> saveByDates = new ArrayList<>(kPeriods.size());
+        for (int i = 0; i < kPeriods.size(); i++) {
+            double investmentAmount = investmentAmounts[i];
 
-    private double sumMatchingPPeriods(LocalDateTime date, List<PPeriod> pPeriods) {
-        if (pPeriods == null || pPeriods.isEmpty()) return 0;
+            double profit = growth.profit(investmentAmount);
 
-        return pPeriods.stream()
-                .filter(p -> isWithinRange(date, p.getStart(), p.getEnd()))
-                .mapToDouble(PPeriod::getExtra)
-                .sum();
+            saveByDates.add(KPeriodResult.builder()
+                    .start(kPeriods.get(i).getStart())
+                    .end(kPeriods.get(i).getEnd())
+                    .amount(investmentAmount)
+                    .profit(round(profit))
+                    .taxBenefit(round(taxBenefits[i]))
+                    .build());
+        }
+        ReturnsResponse response = ReturnsResponse.builder()
+                .totalTransactionAmount(Money.toRupees(totals.amount()))
+                .totalCeiling(Money.toRupees(totals.ceiling()))
+                .savingsByDates(saveByDates)
+                .build();
+        stage.end(saveByDates.size());
+        return response;
     }
 
-    private double compoundInterest(double principal, double rate, int years) {
-        return principal * Math.pow(1 + rate / COMPOUND_FREQ,
-                (double) COMPOUND_FREQ * years);
+    @Override
+    public long[] sumByKPeriod(RangeSumIndex remanentIndex, PeriodRuleSet rules) {
+        List<KPeriod> kPeriods = rules.kPeriods();
+        StageTrace.Span stage = tracingService.start("k-sums", kPeriods.size());
+        remanentIndex.sort(); // before the ranges are summed in parallel
+        long[] sums = new long[kPeriods.size()];
+        batchExecutor.forEachRange(kPeriods.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                KPeriod kPeriod = kPeriods.get(i);
+                sums[i] = remanentIndex.sum(
+                        PeriodIndex.toEpochSecond(kPeriod.getStart()),
+                        PeriodIndex.toEpochSecond(kPeriod.getEnd()));
+            }
+        });
+        stage.end(sums.length);
+        return sums;
     }
 
-    private double inflationAdjust(double amount, double inflation, int years) {
-        return amount / Math.pow(1 + inflation, years);
+    private RangeSumIndex indexRemanents(TransactionBatch transactions) {
+        StageTrace.Span stage = tracingService.start("index", transactions.size());
+        RangeSumIndex index = RangeSumIndex.of(
+                Arrays.copyOf(transactions.timestampColumn(), transactions.size()),
+                Arrays.copyOf(transactions.remanentColumn(), transactions.size()));
+        stage.end(transactions.size());
+        return index;
     }
 
     private int computeInvestmentYears(int age) {
@@ -174,12 +252,6 @@ public class ReturnsCalculationServiceImpl implements ReturnsCalculationService
     }
 
 
-    private boolean isWithinRange(LocalDateTime date,
-                                  LocalDateTime start,
-                                  LocalDateTime end) {
-        return !date.isBefore(start) && !date.isAfter(end);
-    }
-
     private double round(double value) {
         return Math.round(value * 100.0) / 100.0;
     }
@@ -0,0 +1,151 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.ReturnsSession;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.model.request.response.SessionResponse;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.PeriodRuleService;
+import com.hackathon.blackrock.service.ReturnsCalculationService;
+import com.hackathon.blackrock.service.ReturnsSessionService;
+import com.hackathon.blackrock.service.TaxRegimeService;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ReturnsSessionServiceImpl implements ReturnsSessionService {
+
+    private final Cache<String, ReturnsSession> sessions;
+    private final int maxSessions;
+    // sessions created and not yet closed or expired; taken before a session is built
+    private final AtomicInteger openSessions = new AtomicInteger();
+
+    @Autowired
+    private PeriodRuleService periodRuleService;
+
+    @Autowired
+    private ReturnsCalculationService returnsService;
+
+    @Autowired
+    private TaxRegimeService taxRegimeService;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    public ReturnsSessionServiceImpl(@Value("${blackrock.sessions.ttl:30m}") Duration ttl,
+                                     @Value("${blackrock.sessions.max:10000}") int maxSessions) {
+        // expired sessions are dropped on a timer as well as on access, so an idle server frees them too
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .scheduler(Scheduler.systemScheduler())
+                // runs on the evicting thread, so a slot is free again by the time cleanUp returns
+                .<String, ReturnsSession>evictionListener((id, session, cause) -> openSessions.decrementAndGet())
+                .build();
+        this.maxSessions = maxSessions;
+    }
+
+    @Override
+    public SessionResponse create(ReturnsRequest request) {
+        if (!reserveSlot()) {
+            sessions.cleanUp(); // sessions that have just expired may still hold slots
+            if (!reserveSlot()) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open sessions");
+            }
+        }
+        ReturnsSession session;
+        try {
+            // fails fast on an unknown regime rather than on the first query
+            taxRegimeService.regime(request.getTaxRegime());
+
+            PeriodRuleSet rules = periodRuleService.compile(request.getQ(), request.getP(), request.getK());
+            session = new ReturnsSession(UUID.randomUUID().toString(), rules,
+                    request.getAge(), request.getWage(), request.getInflation(), request.getTaxRegime());
+        } catch (RuntimeException e) {
+            openSessions.decrementAndGet();
+            throw e;
+        }
+        sessions.put(session.id(), session);
+
+        return append(session, request.getTransactions() == null ? List.of() : request.getTransactions());
+    }
+
+    @Override
+    public SessionResponse append(String sessionId, List<Transaction> transactions) {
+        return append(session(sessionId), transactions == null ? List.of() : transactions);
+    }
+
+    @Override
+    public ReturnsResponse returns(String sessionId, boolean isNPS) {
+        ReturnsSession session = session(sessionId);
+        synchronized (session) {
+            return returnsService.calculate(session.totals(), session.kRemanents(), session.rules(),
+                    session.taxRegime(), session.age(), session.wage(), session.inflation(), isNPS);
+        }
+    }
+
+    @Override
+    public ReturnsResponse returns(String sessionId, List<KPeriod> kPeriods, boolean isNPS) {
+        ReturnsSession session = session(sessionId);
+        // only the k ranges are used, as q and p were applied on append; compiled directly so
+        // one-off ranges do not push shared configs out of the period cache
+        PeriodRuleSet ranges = PeriodRuleSet.compile(null, null, kPeriods);
+        synchronized (session) {
+            return returnsService.calculate(session.totals(),
+                    returnsService.sumByKPeriod(session.remanentIndex(), ranges), ranges,
+                    session.taxRegime(), session.age(), session.wage(), session.inflation(), isNPS);
+        }
+    }
+
+    @Override
+    public void close(String sessionId) {
+        if (sessions.asMap().remove(sessionId) == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown session: " + sessionId);
+        }
+        openSessions.decrementAndGet();
+    }
+
+    private SessionResponse append(ReturnsSession session, List<Transaction> transactions) {
+        metricsService.recordRows(transactions.size());
+        synchronized (session) {
+            int accepted = session.append(transactions);
+            return SessionResponse.builder()
+                    .sessionId(session.id())
+                    .accepted(accepted)
+                    .transactionCount(session.totals().count())
+                    .build();
+        }
+    }
+
+    /** Takes one of the {@code maxSessions} slots, if any is free; check and take are one step. */
+    private boolean reserveSlot() {
+        int open;
+        do {
+            open = openSessions.get();
+            if (open >= maxSessions) return false;
+        } while (!openSessions.compareAndSet(open, open + 1));
+        return true;
+    }
+
+    private ReturnsSession session(String sessionId) {
+        // a read resets the session's expiry; an expired one is never returned
+        ReturnsSession session = sessions.getIfPresent(sessionId);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown session: " + sessionId);
+        }
+        return session;
+    }
+}
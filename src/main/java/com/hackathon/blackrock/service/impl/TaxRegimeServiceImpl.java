@@ -0,0 +1,41 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.hackathon.blackrock.config.TaxProperties;
+import com.hackathon.blackrock.service.TaxRegimeService;
+import com.hackathon.blackrock.utility.TaxRegime;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+public class TaxRegimeServiceImpl implements TaxRegimeService {
+
+    private final Map<String, TaxRegime> regimes = new HashMap<>();
+    private final TaxRegime defaultRegime;
+
+    public TaxRegimeServiceImpl(TaxProperties properties) {
+        regimes.put(TaxRegime.DEFAULT.name(), TaxRegime.DEFAULT);
+        // compiled once at startup, so a bad slab table fails the boot rather than a request
+        properties.getRegimes().forEach((name, regime) -> regimes.put(name,
+                TaxRegime.parse(name, regime.getSlabs(), regime.getDeductionRate(), regime.getDeductionCap())));
+
+        this.defaultRegime = regimes.get(properties.getDefaultRegime());
+        if (defaultRegime == null) {
+            throw new IllegalStateException("Unknown default tax regime: " + properties.getDefaultRegime());
+        }
+    }
+
+    @Override
+    public TaxRegime regime(String name) {
+        if (name == null || name.isBlank()) return defaultRegime;
+
+        TaxRegime regime = regimes.get(name);
+        if (regime == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown tax regime: " + name);
+        }
+        return regime;
+    }
+}
@@ -0,0 +1,98 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.hackathon.blackrock.model.request.response.StageMetrics;
+import com.hackathon.blackrock.service.TracingService;
+import com.hackathon.blackrock.utility.LatencyHistogram;
+import com.hackathon.blackrock.utility.StageTrace;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class TracingServiceImpl implements TracingService {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final ThreadLocal<StageTrace> current = new ThreadLocal<>();
+    private final Map<String, StageStats> stats = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public TracingServiceImpl(@Value("${blackrock.tracing.enabled:true}") boolean enabled,
+                              @Value("${blackrock.tracing.sample-rate:0.01}") double sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void begin(boolean forced) {
+        if (!enabled) return;
+        if (forced || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            current.set(new StageTrace());
+        }
+    }
+
+    @Override
+    public void end() {
+        StageTrace trace = current.get();
+        if (trace == null) return;
+        current.remove();
+
+        for (int i = 0; i < trace.size(); i++) {
+            if (!trace.ended(i)) continue; // cut short by an exception: no duration to record
+            StageStats stage = stats.get(trace.name(i));
+            if (stage == null) stage = stats.computeIfAbsent(trace.name(i), name -> new StageStats());
+            stage.latency.record(trace.nanos(i));
+            stage.rowsIn.add(trace.rowsIn(i));
+            stage.rowsOut.add(trace.rowsOut(i));
+            stage.allocated.add(trace.allocated(i));
+        }
+    }
+
+    @Override
+    public StageTrace current() {
+        return current.get();
+    }
+
+    @Override
+    public StageTrace.Span start(String stage, long rowsIn) {
+        StageTrace trace = current.get();
+        return trace == null ? StageTrace.Span.NOOP : trace.open(stage, rowsIn);
+    }
+
+    @Override
+    public Map<String, StageMetrics> stages() {
+        Map<String, StageMetrics> result = new TreeMap<>();
+        stats.forEach((name, s) -> {
+            long count = s.latency.count();
+            result.put(name, StageMetrics.builder()
+                    .count(count)
+                    .meanMs(round(s.latency.mean() / NANOS_PER_MILLI))
+                    .p50Ms(round(s.latency.percentile(0.50) / NANOS_PER_MILLI))
+                    .p99Ms(round(s.latency.percentile(0.99) / NANOS_PER_MILLI))
+                    .maxMs(round(s.latency.max() / NANOS_PER_MILLI))
+                    .rowsIn(s.rowsIn.sum())
+                    .rowsOut(s.rowsOut.sum())
+                    .allocatedBytesPerCall(count == 0 ? 0 : s.allocated.sum() / count)
+                    .build());
+        });
+        return result;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+
+    private static final class StageStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rowsIn = new LongAdder();
+        final LongAdder rowsOut = new LongAdder();
+        final LongAdder allocated = new LongAdder();
+    }
+}
@@ -1,131 +1,148 @@
 package com.hackathon.blackrock.service.impl;
 
-import com.hackathon.blackrock.domain.*;
+import com.hackathon.blackrock.domain.ClassificationSink;
+import com.hackathon.blackrock.domain.ClassifiedBatch;
+import com.hackathon.blackrock.domain.RejectReason;
+import com.hackathon.blackrock.domain.TransactionBatch;
 import com.hackathon.blackrock.model.request.FilterRequest;
+import com.hackathon.blackrock.model.request.TransactionFrame;
 import com.hackathon.blackrock.model.request.response.FilterResponse;
+import com.hackathon.blackrock.model.request.response.SummaryResponse;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.PeriodRuleService;
+import com.hackathon.blackrock.service.TracingService;
 import com.hackathon.blackrock.service.TransactionFilterService;
+import com.hackathon.blackrock.utility.BatchExecutor;
+import com.hackathon.blackrock.utility.ClassificationSummary;
+import com.hackathon.blackrock.utility.DuplicateDetector;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import com.hackathon.blackrock.utility.StageTrace;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
 @Service
 public class TransactionFilterServiceImpl implements TransactionFilterService {
-    @Override
-    public FilterResponse filter(FilterRequest request){
-        if(request==null || request.getTransactions()==null || request.getTransactions().size()==0){
-            return FilterResponse.builder()
-                    .valid(List.of())
-                    .invalid(List.of())
-                    .build();
-        }
-        List<Transaction> validTransaction = new ArrayList<>();
-        List<InvalidTransaction>  invalidTransaction = new ArrayList<>();
-
-        Set<LocalDateTime> seenDates = new HashSet<>();
-        for(Transaction transaction : request.getTransactions()){
-            if(transaction.getAmount()<0){
-                invalidTransaction.add(toInvalid(transaction, "Negative amounts are not allowed"));
-                continue;
-            }
-            if(seenDates.contains(transaction.getDate())){
-                invalidTransaction.add(toInvalid(transaction, "Date is already in use"));
-                continue;
-            }
-            seenDates.add(transaction.getDate());
-            double remanent = transaction.getRemanent();
 
-            QPeriod matchingQ = findMatchingQPeriod(transaction.getDate(), request.getQ());
-            if(matchingQ!=null){
-                remanent = matchingQ.getFixed();
-            }
+    private static final byte VALID = 0;
+    private static final byte NEGATIVE = 1;
+    private static final byte DUPLICATE = 2;
 
-            double totalExtra = sumOfMatchingPPeriods(transaction.getDate(), request.getP());
-            remanent+=totalExtra;
+    @Autowired
+    private PeriodRuleService periodRuleService;
 
-            boolean inKPeriod = isInAnyKPeriod(transaction.getDate(), request.getK());
+    @Autowired
+    private BatchExecutor batchExecutor;
 
-            Transaction txnEnriched = Transaction.builder()
-                    .date(transaction.getDate())
-                    .amount(transaction.getAmount())
-                    .ceiling(transaction.getCeiling())
-                    .remanent(remanent)
-                    .inKPeriod(inKPeriod)
-                    .build();
+    @Autowired
+    private MetricsService metricsService;
 
-            validTransaction.add(txnEnriched);
+    @Autowired
+    private TracingService tracingService;
 
-        }
-        return FilterResponse.builder()
-                .valid(validTransaction)
-                .invalid(invalidTransaction)
-                .build();
-    }
-
-    private double sumOfMatchingPPeriods(LocalDateTime txnDate, List<PPeriod> pPeriods) {
-        if (pPeriods == null || pPeriods.isEmpty()) return 0;
-
-        return pPeriods.stream()
-                .filter(p -> isWithinRange(txnDate, p.getStart(), p.getEnd()))
-                .mapToDouble(PPeriod::getExtra)
-                .sum();
+    @Override
+    public FilterResponse filter(FilterRequest request){
+        return toResponse(classify(request));
     }
 
-    private boolean isInAnyKPeriod(LocalDateTime txnDate, List<KPeriod> kPeriods) {
-        if (kPeriods == null || kPeriods.isEmpty()) return true;
-        return kPeriods.stream()
-                .anyMatch(k -> isWithinRange(txnDate, k.getStart(), k.getEnd()));
+    @Override
+    public FilterResponse filter(TransactionFrame frame) {
+        return toResponse(classify(frame));
     }
 
-    private QPeriod findMatchingQPeriod(LocalDateTime txnDate, List<QPeriod> qPeriods) {
-        if (qPeriods == null || qPeriods.isEmpty()) return null;
-
-        QPeriod best        = null;
-        int     bestIndex   = -1;
+    @Override
+    public ClassifiedBatch classify(FilterRequest request) {
+        if(request==null || request.getTransactions()==null || request.getTransactions().size()==0){
+            return new ClassifiedBatch(0);
+        }
+        PeriodRuleSet rules = periodRuleService.compile(request.getQ(), request.getP(), request.getK());
 
-        for (int i = 0; i < qPeriods.size(); i++) {
-            QPeriod q = qPeriods.get(i);
+        return filter(TransactionBatch.of(request.getTransactions()), rules);
+    }
 
-            if (isWithinRange(txnDate, q.getStart(), q.getEnd())) {
+    @Override
+    public ClassifiedBatch classify(TransactionFrame frame) {
+        ClassifiedBatch result = new ClassifiedBatch(frame.getTransactions().size());
+        classify(frame, result);
+        return result;
+    }
 
-                if (best == null) {
-                    best      = q;
-                    bestIndex = i;
+    @Override
+    public void classify(TransactionFrame frame, ClassificationSink sink) {
+        // as for JSON requests, periods are not compiled (or checked) when there are no rows
+        if (frame.getTransactions().size() == 0) return;
+        PeriodRuleSet rules = periodRuleService.compile(frame.getQ(), frame.getP(), frame.getK());
+        filter(frame.getTransactions(), rules, sink);
+    }
 
-                } else {
-                    int cmp = q.getStart().compareTo(best.getStart());
+    @Override
+    public SummaryResponse summarize(FilterRequest request, boolean reasonCodes) {
+        ClassificationSummary summary = new ClassificationSummary();
+        if (request != null && request.getTransactions() != null && !request.getTransactions().isEmpty()) {
+            PeriodRuleSet rules = periodRuleService.compile(request.getQ(), request.getP(), request.getK());
+            filter(TransactionBatch.of(request.getTransactions()), rules, summary);
+        }
+        return summary.toResponse(reasonCodes);
+    }
 
-                    if (cmp > 0) {
-                        best      = q;
-                        bestIndex = i;
+    @Override
+    public SummaryResponse summarize(TransactionFrame frame, boolean reasonCodes) {
+        ClassificationSummary summary = new ClassificationSummary();
+        PeriodRuleSet rules = periodRuleService.compile(frame.getQ(), frame.getP(), frame.getK());
+        filter(frame.getTransactions(), rules, summary);
+        return summary.toResponse(reasonCodes);
+    }
 
-                    } else if (cmp == 0) {
+    private FilterResponse toResponse(ClassifiedBatch result) {
+        return FilterResponse.builder()
+                .valid(result.valid().toTransactions())
+                .invalid(result.toInvalidTransactions())
+                .build();
+    }
 
-                    }
+    @Override
+    public ClassifiedBatch filter(TransactionBatch transactions, PeriodRuleSet rules) {
+        ClassifiedBatch result = new ClassifiedBatch(transactions.size());
+        filter(transactions, rules, result);
+        return result;
+    }
 
+    @Override
+    public void filter(TransactionBatch transactions, PeriodRuleSet rules, ClassificationSink sink) {
+        int size = transactions.size();
+        metricsService.recordRows(size);
+        StageTrace.Span stage = tracingService.start("filter", size);
+        long[] timestamps = transactions.timestampColumn();
+        long[] amounts = transactions.amountColumn();
+
+        // rule lookups are independent per row and run in parallel on large batches;
+        // duplicates are resolved afterwards by DuplicateDetector, in row order
+        byte[] status = new byte[size];
+        long[] remanents = new long[size];
+        boolean[] inKPeriod = new boolean[size];
+        batchExecutor.forEachRange(size, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                if (amounts[row] < 0) {
+                    status[row] = NEGATIVE;
+                    continue;
+                }
+                remanents[row] = rules.remanentAt(timestamps[row], transactions.remanent(row));
+                inKPeriod[row] = rules.inAnyKPeriod(timestamps[row]);
+            }
+        });
+        DuplicateDetector.markDuplicates(batchExecutor, timestamps, size,
+                status, VALID, VALID, DUPLICATE);
+
+        int valid = 0;
+        for (int row = 0; row < size; row++) {
+            switch (status[row]) {
+                case NEGATIVE  -> sink.reject(transactions, row, RejectReason.NEGATIVE_NOT_ALLOWED);
+                case DUPLICATE -> sink.reject(transactions, row, RejectReason.DATE_IN_USE);
+                default -> {
+                    sink.accept(transactions, row, remanents[row], inKPeriod[row]);
+                    valid++;
                 }
             }
         }
-
-        return best;
-    }
-
-    private boolean isWithinRange(LocalDateTime date,
-                                  LocalDateTime start,
-                                  LocalDateTime end) {
-        return !date.isBefore(start) && !date.isAfter(end);
-    }
-
-    private InvalidTransaction toInvalid(Transaction txn, String message) {
-        return InvalidTransaction.builder()
-                .date(txn.getDate())
-                .amount(txn.getAmount())
-                .ceiling(txn.getCeiling())
-                .remanent(txn.getRemanent())
-                .message(message)
-                .build();
+        stage.end(valid);
     }
 }
@@ -1,16 +1,31 @@
 package com.hackathon.blackrock.service.impl;
 
 import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.domain.TransactionBatch;
 import com.hackathon.blackrock.model.request.ExpenseRequest;
 import com.hackathon.blackrock.model.request.response.TransactionResponse;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.TracingService;
 import com.hackathon.blackrock.service.TransactionParsingService;
+import com.hackathon.blackrock.utility.Money;
+import com.hackathon.blackrock.utility.StageTrace;
+import com.hackathon.blackrock.utility.TransactionTotals;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class TransactionParserServiceImpl implements TransactionParsingService {
 
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private TracingService tracingService;
+
     @Override
     public TransactionResponse parser(List<ExpenseRequest> expenses) {
         if (expenses == null || expenses.isEmpty()) {
@@ -22,45 +37,57 @@ public class TransactionParserServiceImpl implements TransactionParsingService {
                     .build();
 
         }
-        List<Transaction> transactions = expenses.stream()
-                .map(this::toTransaction)
-                .toList();
+        TransactionBatch transactions = parse(expenses);
+        return TransactionTotals.of(transactions).toResponse(transactions.toTransactions());
+    }
 
-        double totalAmount = transactions.stream().mapToDouble(Transaction::getAmount).sum();
-        double totalCeiling = transactions.stream().mapToDouble(Transaction::getCeiling).sum();
-        double totalRemanent = transactions.stream().mapToDouble(Transaction::getRemanent).sum();
+    @Override
+    public TransactionBatch parse(List<ExpenseRequest> expenses) {
+        metricsService.recordRows(expenses.size());
+        StageTrace.Span stage = tracingService.start("parse", expenses.size());
+        TransactionBatch transactions = new TransactionBatch(expenses.size());
+        for (ExpenseRequest expense : expenses) {
+            long amount = Money.toMinor(expense.getAmount());
+            transactions.add(TransactionBatch.toEpochSecond(expense.getDate()),
+                    amount, Money.ceiling(amount), Money.remanent(amount));
+        }
+        stage.end(transactions.size());
+        return transactions;
+    }
 
-        return TransactionResponse.builder()
-                .transactions(transactions)
-                .totalAmount(totalAmount)
-                .totalCeiling(totalCeiling)
-                .totalRemanent(totalRemanent)
-                .build();
+    @Override
+    public TransactionResponse parser(Iterator<ExpenseRequest> expenses, Consumer<Transaction> sink) {
+        TransactionTotals totals = new TransactionTotals();
+        while (expenses.hasNext()) {
+            Transaction transaction = toTransaction(expenses.next());
+            totals.add(transaction);
+            sink.accept(transaction);
+        }
+        metricsService.recordRows(totals.count());
+        return totals.toResponse(null);
+    }
+
+    @Override
+    public TransactionResponse totals(Iterator<ExpenseRequest> expenses) {
+        // one fused pass: ceiling and remanent are computed inline and never boxed into a Transaction
+        TransactionTotals totals = new TransactionTotals();
+        while (expenses.hasNext()) {
+            long amount = Money.toMinor(expenses.next().getAmount());
+            long ceiling = Money.ceiling(amount);
+            totals.add(amount, ceiling, Money.remanent(amount));
+        }
+        metricsService.recordRows(totals.count());
+        return totals.toResponse(null);
     }
 
     private Transaction toTransaction(ExpenseRequest expense) {
-        double amount = expense.getAmount();
-        double ceiling = computeCeiling(amount);
-        double remanent = computeRemanent(amount, ceiling);
+        long amount = Money.toMinor(expense.getAmount());
 
         return Transaction.builder()
                 .date(expense.getDate())
-                .amount(amount)
-                .ceiling(ceiling)
-                .remanent(remanent)
+                .amount(Money.toRupees(amount))
+                .ceiling(Money.toRupees(Money.ceiling(amount)))
+                .remanent(Money.toRupees(Money.remanent(amount)))
                 .build();
     }
-
-    private double computeCeiling(double amount) {
-        if (amount <= 0) return 0;
-        if (amount % 100 == 0) return amount;
-        return (Math.floor(amount / 100) + 1) * 100;
-    }
-
-    private double computeRemanent(double amount, double ceiling) {
-        if (amount <= 0) return 0;
-        return ceiling - amount;
-    }
 }
-
-
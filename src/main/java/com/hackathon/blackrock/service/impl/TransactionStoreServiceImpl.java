@@ -0,0 +1,211 @@
+package com.hackathon.blackrock.service.impl;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.entity.UserPeriod;
+import com.hackathon.blackrock.entity.UserProfile;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.ReturnsResponse;
+import com.hackathon.blackrock.model.request.response.StoredUserResponse;
+import com.hackathon.blackrock.repository.UserPeriodRepository;
+import com.hackathon.blackrock.repository.UserProfileRepository;
+import com.hackathon.blackrock.repository.UserTransactionStore;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.PeriodRuleService;
+import com.hackathon.blackrock.service.ReturnsCalculationService;
+import com.hackathon.blackrock.service.TaxRegimeService;
+import com.hackathon.blackrock.service.TransactionStoreService;
+import com.hackathon.blackrock.utility.DuplicateDetector;
+import com.hackathon.blackrock.utility.LongHashSet;
+import com.hackathon.blackrock.utility.Money;
+import com.hackathon.blackrock.utility.PeriodRuleSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class TransactionStoreServiceImpl implements TransactionStoreService {
+
+    @Autowired
+    private UserProfileRepository profileRepository;
+
+    @Autowired
+    private UserPeriodRepository periodRepository;
+
+    @Autowired
+    private UserTransactionStore transactionStore;
+
+    @Autowired
+    private PeriodRuleService periodRuleService;
+
+    @Autowired
+    private ReturnsCalculationService returnsService;
+
+    @Autowired
+    private TaxRegimeService taxRegimeService;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public StoredUserResponse saveProfile(String userId, ReturnsRequest request) {
+        taxRegimeService.regime(request.getTaxRegime());
+        try {
+            return transactionTemplate.execute(status -> replaceProfile(userId, request));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent first save created the user; the row exists now, so the retry waits on its lock
+            return transactionTemplate.execute(status -> replaceProfile(userId, request));
+        }
+    }
+
+    private StoredUserResponse replaceProfile(String userId, ReturnsRequest request) {
+        // waits out appends and saves in flight for an existing user; a new one has no row to lock
+        boolean exists = profileRepository.findByIdForUpdate(userId).isPresent();
+
+        UserProfile profile = UserProfile.builder()
+                .userId(userId)
+                .age(request.getAge())
+                .wage(request.getWage())
+                .inflation(request.getInflation())
+                .taxRegime(request.getTaxRegime())
+                .build();
+        if (exists) {
+            profileRepository.save(profile);
+        } else {
+            // flushed at once, so a concurrent first save fails here, before any periods are touched
+            profileRepository.saveAndFlush(profile);
+        }
+
+        periodRepository.deleteByUserId(userId);
+        List<UserPeriod> periods = new ArrayList<>();
+        if (request.getQ() != null) {
+            for (QPeriod q : request.getQ()) {
+                periods.add(period(userId, UserPeriod.Q, periods.size(), q.getStart(), q.getEnd(), q.getFixed()));
+            }
+        }
+        if (request.getP() != null) {
+            for (PPeriod p : request.getP()) {
+                periods.add(period(userId, UserPeriod.P, periods.size(), p.getStart(), p.getEnd(), p.getExtra()));
+            }
+        }
+        if (request.getK() != null) {
+            // k positions restart at 0 so they double as indexes into the k results
+            int position = 0;
+            for (KPeriod k : request.getK()) {
+                periods.add(period(userId, UserPeriod.K, position++, k.getStart(), k.getEnd(), 0));
+            }
+        }
+        periodRepository.saveAll(periods);
+
+        PeriodRuleSet rules = periodRuleService.compile(request.getQ(), request.getP(), request.getK());
+        transactionStore.enrich(userId, rules);
+        return store(userId, rules, request.getTransactions());
+    }
+
+    @Override
+    @Transactional
+    public StoredUserResponse append(String userId, List<Transaction> transactions) {
+        // the lock makes the duplicate check and the insert atomic against concurrent appends
+        profileRepository.findByIdForUpdate(userId).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown user: " + userId));
+        return store(userId, rules(periodRepository.findByUserIdOrderByKindAscPositionAsc(userId)), transactions);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReturnsResponse returns(String userId, boolean isNPS) {
+        UserProfile profile = profileRepository.findById(userId).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown user: " + userId));
+        PeriodRuleSet rules = rules(periodRepository.findByUserIdOrderByKindAscPositionAsc(userId));
+
+        return returnsService.calculate(transactionStore.totals(userId),
+                transactionStore.sumByKPeriod(userId, rules.kPeriods().size()), rules,
+                profile.getTaxRegime(), profile.getAge(), profile.getWage(), profile.getInflation(), isNPS);
+    }
+
+    private StoredUserResponse store(String userId, PeriodRuleSet rules, List<Transaction> transactions) {
+        int accepted = 0;
+        if (transactions != null && !transactions.isEmpty()) {
+            metricsService.recordRows(transactions.size());
+            TransactionBatch batch = TransactionBatch.of(transactions);
+            accepted = insertNew(userId, batch, rules);
+        }
+        return StoredUserResponse.builder()
+                .userId(userId)
+                .accepted(accepted)
+                .transactionCount(transactionStore.totals(userId).count())
+                .build();
+    }
+
+    private int insertNew(String userId, TransactionBatch batch, PeriodRuleSet rules) {
+        // undated rows are never stored, so they must not widen the range of stored dates to load
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int row = 0; row < batch.size(); row++) {
+            long timestamp = batch.timestamp(row);
+            if (timestamp == TransactionBatch.NO_DATE) continue;
+            min = Math.min(min, timestamp);
+            max = Math.max(max, timestamp);
+        }
+        if (min > max) return 0;
+        // same rules as a returns request: negatives dropped, the first row for a date kept,
+        // and a date already stored counts as seen
+        LongHashSet stored = transactionStore.existingTimestamps(userId, min, max);
+        DuplicateDetector seenDates = DuplicateDetector.forBatch(batch);
+
+        int[] rows = new int[batch.size()];
+        long[] enriched = new long[batch.size()];
+        int count = 0;
+        for (int row = 0; row < batch.size(); row++) {
+            long timestamp = batch.timestamp(row);
+            if (timestamp == TransactionBatch.NO_DATE || batch.amount(row) < 0) continue;
+            if (!seenDates.firstSeen(timestamp) || stored.contains(timestamp)) continue;
+            rows[count] = row;
+            enriched[count] = rules.remanentAt(timestamp, batch.remanent(row));
+            count++;
+        }
+        transactionStore.insert(userId, batch, rows, enriched, count);
+        return count;
+    }
+
+    private PeriodRuleSet rules(List<UserPeriod> periods) {
+        List<QPeriod> q = new ArrayList<>();
+        List<PPeriod> p = new ArrayList<>();
+        List<KPeriod> k = new ArrayList<>();
+        for (UserPeriod period : periods) {
+            LocalDateTime start = TransactionBatch.toDate(period.getStartTs());
+            LocalDateTime end = TransactionBatch.toDate(period.getEndTs());
+            switch (period.getKind()) {
+                case UserPeriod.Q -> q.add(new QPeriod(Money.toRupees(period.getAmount()), start, end));
+                case UserPeriod.P -> p.add(new PPeriod(Money.toRupees(period.getAmount()), start, end));
+                default -> k.add(new KPeriod(start, end));
+            }
+        }
+        return periodRuleService.compile(q, p, k);
+    }
+
+    private static UserPeriod period(String userId, char kind, int position,
+                                     LocalDateTime start, LocalDateTime end, double amount) {
+        return UserPeriod.builder()
+                .userId(userId)
+                .kind(kind)
+                .position(position)
+                .startTs(TransactionBatch.toEpochSecond(start))
+                .endTs(TransactionBatch.toEpochSecond(end))
+                .amount(Money.toMinor(amount))
+                .build();
+    }
+}
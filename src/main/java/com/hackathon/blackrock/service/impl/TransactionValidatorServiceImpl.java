@@ -1,90 +1,149 @@
 package com.hackathon.blackrock.service.impl;
 
-import com.hackathon.blackrock.domain.InvalidTransaction;
-import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.domain.ClassificationSink;
+import com.hackathon.blackrock.domain.ClassifiedBatch;
+import com.hackathon.blackrock.domain.RejectReason;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.TransactionFrame;
 import com.hackathon.blackrock.model.request.ValidatorRequest;
+import com.hackathon.blackrock.model.request.response.SummaryResponse;
 import com.hackathon.blackrock.model.request.response.ValidatorResponse;
+import com.hackathon.blackrock.service.MetricsService;
+import com.hackathon.blackrock.service.TracingService;
 import com.hackathon.blackrock.service.TransactionValidatorService;
+import com.hackathon.blackrock.utility.BatchExecutor;
+import com.hackathon.blackrock.utility.ClassificationSummary;
+import com.hackathon.blackrock.utility.DuplicateDetector;
+import com.hackathon.blackrock.utility.Money;
+import com.hackathon.blackrock.utility.StageTrace;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
 @Service
 public class TransactionValidatorServiceImpl implements TransactionValidatorService {
 
-    private static final double MAX_AMOUNT =  500_000;
+    private static final long MAX_AMOUNT = Money.toMinor(500_000);
+
+    // row outcomes, in the order the checks are reported
+    private static final byte VALID = 0;
+    private static final byte NEGATIVE = 1;
+    private static final byte TOO_LARGE = 2;
+    private static final byte DUPLICATE = 3;
+    private static final byte BAD_CEILING = 4;
+
+    @Autowired
+    private BatchExecutor batchExecutor;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private TracingService tracingService;
 
     @Override
     public ValidatorResponse validate(ValidatorRequest request){
+        return toResponse(classify(request));
+    }
+
+    @Override
+    public ValidatorResponse validate(TransactionFrame frame) {
+        return toResponse(classify(frame));
+    }
+
+    @Override
+    public ClassifiedBatch classify(ValidatorRequest request) {
         if(request==null || request.getTransactions()==null){
-            return ValidatorResponse.builder()
-                    .valid(List.of())
-                    .invalid(List.of())
-                    .build();
+            return new ClassifiedBatch(0);
         }
-        List<Transaction> validTransaction = new ArrayList<>();
-        List<InvalidTransaction> invalidTransactions = new ArrayList<>();
+        return validate(TransactionBatch.of(request.getTransactions()));
+    }
 
-        Set<LocalDateTime> seenDates = new HashSet<>();
+    @Override
+    public ClassifiedBatch classify(TransactionFrame frame) {
+        return validate(frame.getTransactions());
+    }
 
-        for(Transaction t: request.getTransactions()){
-            if(t.getAmount()<0){
-                invalidTransactions.add(toInvalid(t, "No Negative amounts are allowed"));
-                continue;
-            }
-            if(t.getAmount()>=MAX_AMOUNT){
-                invalidTransactions.add(toInvalid(t, "Amount too large for transaction"));
-                continue;
-            }
-            if(seenDates.contains(t.getDate())){
-                invalidTransactions.add(toInvalid(t, "Transaction has already been seen"));
-                continue;
-            }
-            if(!isCeilingValid(t)){
-                invalidTransactions.add(toInvalid(t, "Ceiling is not valid"));
-                continue;
-            }
-            seenDates.add(t.getDate());
-            validTransaction.add(t);
+    @Override
+    public void classify(TransactionFrame frame, ClassificationSink sink) {
+        validate(frame.getTransactions(), sink);
+    }
+
+    @Override
+    public SummaryResponse summarize(ValidatorRequest request, boolean reasonCodes) {
+        ClassificationSummary summary = new ClassificationSummary();
+        if (request != null && request.getTransactions() != null) {
+            validate(TransactionBatch.of(request.getTransactions()), summary);
         }
+        return summary.toResponse(reasonCodes);
+    }
+
+    @Override
+    public SummaryResponse summarize(TransactionFrame frame, boolean reasonCodes) {
+        ClassificationSummary summary = new ClassificationSummary();
+        validate(frame.getTransactions(), summary);
+        return summary.toResponse(reasonCodes);
+    }
+
+    private ValidatorResponse toResponse(ClassifiedBatch result) {
         return ValidatorResponse.builder()
-                .valid(validTransaction)
-                .invalid(invalidTransactions)
+                .valid(result.valid().toTransactions())
+                .invalid(result.toInvalidTransactions())
                 .build();
     }
 
-    private InvalidTransaction toInvalid(Transaction txn, String message) {
-        return InvalidTransaction.builder()
-                .date(txn.getDate())
-                .amount(txn.getAmount())
-                .ceiling(txn.getCeiling())
-                .remanent(txn.getRemanent())
-                .message(message)
-                .build();
+    @Override
+    public ClassifiedBatch validate(TransactionBatch transactions) {
+        ClassifiedBatch result = new ClassifiedBatch(transactions.size());
+        validate(transactions, result);
+        return result;
     }
 
-    private boolean isCeilingValid(Transaction txn) {
-        double amount  = txn.getAmount();
-        double ceiling = txn.getCeiling();
-        double remanent = txn.getRemanent();
-
-        double expectedCeiling;
-        if (amount <= 0) {
-            expectedCeiling = 0;
-        } else if (amount % 100 == 0) {
-            expectedCeiling = amount;
-        } else {
-            expectedCeiling = (Math.floor(amount / 100) + 1) * 100;
+    @Override
+    public void validate(TransactionBatch transactions, ClassificationSink sink) {
+        int size = transactions.size();
+        metricsService.recordRows(size);
+        StageTrace.Span stage = tracingService.start("validate", size);
+        long[] amounts = transactions.amountColumn();
+
+        // per-row checks are independent, so they run in parallel; the duplicate check
+        // depends on earlier rows and is resolved afterwards by DuplicateDetector
+        byte[] status = new byte[size];
+        batchExecutor.forEachRange(size, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                if (amounts[row] < 0)                       status[row] = NEGATIVE;
+                else if (amounts[row] >= MAX_AMOUNT)        status[row] = TOO_LARGE;
+                else if (!isCeilingValid(transactions, row)) status[row] = BAD_CEILING;
+                else                                         status[row] = VALID;
+            }
+        });
+        DuplicateDetector.markDuplicates(batchExecutor, transactions.timestampColumn(), size,
+                status, VALID, BAD_CEILING, DUPLICATE);
+
+        int valid = 0;
+        for (int row = 0; row < size; row++) {
+            switch (status[row]) {
+                case NEGATIVE    -> sink.reject(transactions, row, RejectReason.NEGATIVE_AMOUNT);
+                case TOO_LARGE   -> sink.reject(transactions, row, RejectReason.AMOUNT_TOO_LARGE);
+                case DUPLICATE   -> sink.reject(transactions, row, RejectReason.DUPLICATE_TRANSACTION);
+                case BAD_CEILING -> sink.reject(transactions, row, RejectReason.INVALID_CEILING);
+                default -> {
+                    sink.accept(transactions, row, transactions.remanent(row), transactions.inKPeriod(row));
+                    valid++;
+                }
+            }
         }
+        stage.end(valid);
+    }
 
-        double expectedRemanent = expectedCeiling - amount;
+    private boolean isCeilingValid(TransactionBatch transactions, int row) {
+        // compared in paise, so the check is exact and needs no epsilon; a row that had a fraction
+        // of a paisa is off by more than rounding can show, and never matches
+        if (!transactions.inPaise(row)) return false;
+        long amount = transactions.amount(row);
+        long expectedCeiling = Money.ceiling(amount);
 
-        boolean ceilingMatch  = Math.abs(ceiling - expectedCeiling)   < 0.001;
-        boolean remanentMatch = Math.abs(remanent - expectedRemanent) < 0.001;
+        boolean ceilingMatch  = transactions.ceiling(row)  == expectedCeiling;
+        boolean remanentMatch = transactions.remanent(row) == expectedCeiling - amount;
 
         return ceilingMatch && remanentMatch;
     }
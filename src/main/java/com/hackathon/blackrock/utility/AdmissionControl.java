@@ -0,0 +1,64 @@
+package com.hackathon.blackrock.utility;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the heavy requests in flight, both by count and by the payload bytes they carry,
+ * since the parsed form of a request grows with its body. A request that cannot get both
+ * within the wait time is turned away instead of queueing without limit.
+ *
+ * The byte budget is counted in KiB so it fits a semaphore; a payload larger than the
+ * whole budget is charged the whole budget and runs alone.
+ */
+public final class AdmissionControl {
+
+    public enum Outcome {
+        ADMITTED,
+        /** Every request slot is taken. */
+        TOO_MANY_REQUESTS,
+        /** A slot was free but the payload does not fit the remaining byte budget. */
+        OVERLOADED
+    }
+
+    private static final int KIB = 1024;
+
+    private final Semaphore slots;
+    private final Semaphore budget;
+    private final int budgetKib;
+    private final long waitMillis;
+
+    public AdmissionControl(int maxConcurrent, long maxInFlightBytes, long waitMillis) {
+        this.slots = new Semaphore(Math.max(maxConcurrent, 1), true);
+        this.budgetKib = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlightBytes / KIB));
+        this.budget = new Semaphore(budgetKib, true);
+        this.waitMillis = waitMillis;
+    }
+
+    /** Tries to admit a request carrying {@code payloadBytes}; admitted requests must call {@link #release}. */
+    public Outcome acquire(long payloadBytes) throws InterruptedException {
+        if (!slots.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+            return Outcome.TOO_MANY_REQUESTS;
+        }
+        if (!budget.tryAcquire(weight(payloadBytes), waitMillis, TimeUnit.MILLISECONDS)) {
+            slots.release();
+            return Outcome.OVERLOADED;
+        }
+        return Outcome.ADMITTED;
+    }
+
+    public void release(long payloadBytes) {
+        budget.release(weight(payloadBytes));
+        slots.release();
+    }
+
+    public int availableSlots() {
+        return slots.availablePermits();
+    }
+
+    private int weight(long payloadBytes) {
+        // rounded up without adding first, which would overflow near Long.MAX_VALUE
+        long kib = payloadBytes / KIB + (payloadBytes % KIB == 0 ? 0 : 1);
+        return (int) Math.max(1, Math.min(budgetKib, kib));
+    }
+}
@@ -0,0 +1,93 @@
+package com.hackathon.blackrock.utility;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs index-range work over a batch, splitting it across a fork-join pool once the batch
+ * reaches the configured threshold. Below the threshold, or without a pool, the whole range
+ * runs inline on the calling thread, so callers have a single code path either way.
+ */
+public final class BatchExecutor {
+
+    // chunks per worker: enough slack for work stealing to even out uneven chunks
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public BatchExecutor(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public static BatchExecutor sequential() {
+        return new BatchExecutor(null, Integer.MAX_VALUE);
+    }
+
+    public boolean isParallel(int size) {
+        return pool != null && size >= threshold;
+    }
+
+    /** Number of independent partitions worth creating for a batch of {@code size} rows. */
+    public int partitions(int size) {
+        return isParallel(size) ? pool.getParallelism() : 1;
+    }
+
+    /** Calls {@code task} over disjoint sub-ranges that together cover {@code [0, size)}. */
+    public void forEachRange(int size, RangeTask task) {
+        if (size <= 0) return;
+        if (!isParallel(size)) {
+            task.run(0, size);
+            return;
+        }
+        int chunks = pool.getParallelism() * CHUNKS_PER_WORKER;
+        int grain = Math.max(1, (size + chunks - 1) / chunks);
+        pool.invoke(new RangeAction(0, size, grain, task));
+    }
+
+    /** Calls {@code task} once per partition index, each as its own fork-join task. */
+    public void forEachPartition(int partitions, PartitionTask task) {
+        if (partitions == 1 || pool == null) {
+            for (int p = 0; p < partitions; p++) task.run(p);
+            return;
+        }
+        pool.invoke(new RangeAction(0, partitions, 1, (from, to) -> {
+            for (int p = from; p < to; p++) task.run(p);
+        }));
+    }
+
+    @FunctionalInterface
+    public interface RangeTask {
+        void run(int from, int to);
+    }
+
+    @FunctionalInterface
+    public interface PartitionTask {
+        void run(int partition);
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeTask task;
+
+        RangeAction(int from, int to, int grain, RangeTask task) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                task.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, grain, task), new RangeAction(mid, to, grain, task));
+        }
+    }
+}
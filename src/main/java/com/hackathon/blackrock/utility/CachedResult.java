@@ -0,0 +1,56 @@
+package com.hackathon.blackrock.utility;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/** A serialized response, its media type and ETag, as kept by the result cache. */
+public final class CachedResult {
+
+    private final byte[] body;
+    private final String etag;
+    private final MediaType contentType;
+
+    public CachedResult(byte[] body, String etag) {
+        this(body, etag, MediaType.APPLICATION_JSON);
+    }
+
+    public CachedResult(byte[] body, String etag, MediaType contentType) {
+        this.body = body;
+        this.etag = etag;
+        this.contentType = contentType;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    /** 304 when {@code ifNoneMatch} already names this result, otherwise 200 with the body. */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch) {
+        if (matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(contentType)
+                .body(body);
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) return false;
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaque(candidate.trim()); // weak comparison, as RFC 9110 asks for If-None-Match
+            if (tag.equals("*") || tag.equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.ClassificationSink;
+import com.hackathon.blackrock.domain.RejectReason;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.response.SummaryResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts and sums of classified rows, taken as they go by without keeping any of them, so a
+ * summary costs the same memory for ten rows as for ten million.
+ */
+public final class ClassificationSummary implements ClassificationSink {
+
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    private final TransactionTotals valid = new TransactionTotals();
+    private final TransactionTotals invalid = new TransactionTotals();
+    private final long[] rejected = new long[REASONS.length];
+    private long inKPeriod;
+
+    @Override
+    public void accept(TransactionBatch source, int row, long remanent, Boolean inKPeriod) {
+        valid.add(source.amount(row), source.ceiling(row), remanent);
+        if (Boolean.TRUE.equals(inKPeriod)) this.inKPeriod++;
+    }
+
+    @Override
+    public void reject(TransactionBatch source, int row, RejectReason reason) {
+        invalid.add(source.amount(row), source.ceiling(row), source.remanent(row));
+        rejected[reason.ordinal()]++;
+    }
+
+    /** The summary, with rejections keyed by {@link RejectReason#code()} rather than message when asked. */
+    public SummaryResponse toResponse(boolean reasonCodes) {
+        Map<String, Long> reasons = new LinkedHashMap<>();
+        for (RejectReason reason : REASONS) {
+            if (rejected[reason.ordinal()] > 0) {
+                reasons.merge(reasonCodes ? reason.code() : reason.message(), rejected[reason.ordinal()], Long::sum);
+            }
+        }
+        return SummaryResponse.builder()
+                .validCount(valid.count())
+                .validAmount(Money.toRupees(valid.amount()))
+                .validCeiling(Money.toRupees(valid.ceiling()))
+                .validRemanent(Money.toRupees(valid.remanent()))
+                .inKPeriodCount(inKPeriod)
+                .invalidCount(invalid.count())
+                .invalidAmount(Money.toRupees(invalid.amount()))
+                .reasons(reasons)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.ClassifiedRows;
+import com.hackathon.blackrock.domain.RejectReason;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+
+/**
+ * Writes {@link ClassifiedRows} in the shape of a validator or filter response straight from
+ * the classified batch's columns, so no {@code Transaction} objects, row copies or response
+ * buffer are built and memory stays at the columns plus a byte a row. Writing starts once the
+ * whole batch is classified: the response lists every rejected row before any accepted one, and
+ * CBOR needs each list's length up front. With the same generator settings the output is
+ * identical to serializing the response DTO; rejected rows can instead carry the short
+ * {@link RejectReason#code() code} in place of the message.
+ */
+public final class ClassifiedBatchWriter {
+
+    private static final SerializableString VALID = new SerializedString("valid");
+    private static final SerializableString INVALID = new SerializedString("invalid");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString CEILING = new SerializedString("ceiling");
+    private static final SerializableString REMANENT = new SerializedString("remanent");
+    private static final SerializableString IN_K_PERIOD = new SerializedString("inKPeriod");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString CODE = new SerializedString("code");
+
+    private final JsonGenerator out;
+    private final boolean reasonCodes;
+    private final char[] date = new char[WireDates.LENGTH];
+
+    public ClassifiedBatchWriter(JsonGenerator out, boolean reasonCodes) {
+        this.out = out;
+        this.reasonCodes = reasonCodes;
+    }
+
+    public void write(ClassifiedRows result) {
+        TransactionBatch rows = result.rows();
+        // properties in the order Jackson writes the response DTOs; one pass over the rows for each list
+        out.writeStartObject();
+        out.writeName(INVALID);
+        out.writeStartArray(null, result.invalidCount()); // sized, so CBOR arrays get a definite length as with the DTOs
+        for (int row = 0; row < rows.size(); row++) {
+            if (result.isValid(row)) continue;
+            writeInvalid(rows.timestamp(row), rows.amount(row), rows.ceiling(row), rows.remanent(row),
+                    result.reason(row));
+        }
+        out.writeEndArray();
+
+        out.writeName(VALID);
+        out.writeStartArray(null, result.validCount());
+        for (int row = 0; row < rows.size(); row++) {
+            if (!result.isValid(row)) continue;
+            writeTransaction(rows.timestamp(row), rows.amount(row), rows.ceiling(row), rows.remanent(row),
+                    rows.inKPeriod(row));
+        }
+        out.writeEndArray();
+        out.writeEndObject();
+    }
+
+    /** One row as a {@code Transaction} object; money in paise. */
+    public void writeTransaction(long timestamp, long amount, long ceiling, long remanent, Boolean inKPeriod) {
+        out.writeStartObject();
+        writeMoney(timestamp, amount, ceiling, remanent);
+        out.writeName(IN_K_PERIOD);
+        if (inKPeriod == null) out.writeNull();
+        else out.writeBoolean(inKPeriod);
+        out.writeEndObject();
+    }
+
+    /** One row as an {@code InvalidTransaction} object, with its message or code; money in paise. */
+    public void writeInvalid(long timestamp, long amount, long ceiling, long remanent, RejectReason reason) {
+        out.writeStartObject();
+        writeMoney(timestamp, amount, ceiling, remanent);
+        if (reasonCodes) {
+            out.writeName(CODE);
+            out.writeString(reason.code());
+        } else {
+            out.writeName(MESSAGE);
+            out.writeString(reason.message());
+        }
+        out.writeEndObject();
+    }
+
+    private void writeMoney(long timestamp, long amount, long ceiling, long remanent) {
+        out.writeName(DATE);
+        if (timestamp == TransactionBatch.NO_DATE) {
+            out.writeNull();
+        } else if (WireDates.format(timestamp, date, 0)) {
+            out.writeString(date, 0, date.length);
+        } else {
+            out.writeString(WireDates.FORMATTER.format(TransactionBatch.toDate(timestamp)));
+        }
+        out.writeName(AMOUNT);
+        out.writeNumber(Money.toRupees(amount));
+        out.writeName(CEILING);
+        out.writeNumber(Money.toRupees(ceiling));
+        out.writeName(REMANENT);
+        out.writeNumber(Money.toRupees(remanent));
+    }
+}
@@ -0,0 +1,157 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.TransactionBatch;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which transaction timestamps have already been accepted. Callers check with
+ * {@link #seen} and record with {@link #add}, so the first accepted occurrence wins.
+ *
+ * When the timestamps of a batch span a range that is small relative to its size, a plain
+ * bitmap over that range is used; otherwise an open-addressing {@link LongHashSet}.
+ */
+public final class DuplicateDetector {
+
+    // a bitmap is chosen while it costs at most this many bits per row (a hash slot is 128)
+    private static final long DENSE_BITS_PER_ROW = 64;
+
+    private LongHashSet hashed;
+    private final long[] bitmap;
+    private final long origin;
+    private boolean seenNoDate;
+
+    private DuplicateDetector(LongHashSet hashed, long[] bitmap, long origin) {
+        this.hashed = hashed;
+        this.bitmap = bitmap;
+        this.origin = origin;
+    }
+
+    /** Hash-backed detector for roughly {@code expectedSize} timestamps. */
+    public static DuplicateDetector hashed(int expectedSize) {
+        return new DuplicateDetector(new LongHashSet(expectedSize), null, 0);
+    }
+
+    /** Sized for the timestamps in {@code transactions}; any timestamp may still be passed in. */
+    public static DuplicateDetector forBatch(TransactionBatch transactions) {
+        return forTimestamps(transactions.timestampColumn(), transactions.size());
+    }
+
+    public static DuplicateDetector forTimestamps(long[] timestamps, int size) {
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            long ts = timestamps[i];
+            if (ts == TransactionBatch.NO_DATE) continue;
+            if (ts < min) min = ts;
+            if (ts > max) max = ts;
+        }
+        if (min <= max) {
+            long range = max - min + 1; // timestamps are epoch seconds, far from overflowing
+            if (range > 0 && range <= DENSE_BITS_PER_ROW * size && range / 64 < Integer.MAX_VALUE) {
+                return new DuplicateDetector(null, new long[(int) ((range + 63) >>> 6)], min);
+            }
+        }
+        return hashed(size);
+    }
+
+    /**
+     * Partitioned form of the check-then-record loop, with the same result as running it over
+     * the rows in order. Rows whose status is {@code record} or {@code checkOnly} are checked
+     * against earlier recorded rows and become {@code duplicate} on a hit; otherwise
+     * {@code record} rows are recorded. Rows with any other status are left alone.
+     *
+     * Rows are partitioned by timestamp hash, so equal timestamps always meet in the same
+     * partition. The rows of each partition are bucketed once, in row order, so each partition
+     * walks only its own rows and still sees them in order.
+     */
+    public static void markDuplicates(BatchExecutor executor, long[] timestamps, int size,
+                                      byte[] status, byte record, byte checkOnly, byte duplicate) {
+        int partitions = Math.min(executor.partitions(size), Byte.MAX_VALUE);
+        if (partitions == 1) {
+            markRows(timestamps, null, 0, size, status, record, checkOnly, duplicate,
+                    forTimestamps(timestamps, size));
+            return;
+        }
+
+        byte[] partitionOf = new byte[size];
+        executor.forEachRange(size, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                partitionOf[row] = (byte) Math.floorMod(mix(timestamps[row]), partitions);
+            }
+        });
+        // counting sort of the rows taking part: bucket p is rows[bucketStart[p], bucketStart[p + 1])
+        int[] bucketStart = new int[partitions + 1];
+        for (int row = 0; row < size; row++) {
+            if (status[row] == record || status[row] == checkOnly) bucketStart[partitionOf[row] + 1]++;
+        }
+        for (int partition = 0; partition < partitions; partition++) {
+            bucketStart[partition + 1] += bucketStart[partition];
+        }
+        int[] rows = new int[bucketStart[partitions]];
+        int[] next = Arrays.copyOf(bucketStart, partitions);
+        for (int row = 0; row < size; row++) {
+            if (status[row] == record || status[row] == checkOnly) rows[next[partitionOf[row]]++] = row;
+        }
+        executor.forEachPartition(partitions, partition -> {
+            int from = bucketStart[partition], to = bucketStart[partition + 1];
+            markRows(timestamps, rows, from, to, status, record, checkOnly, duplicate, hashed(to - from));
+        });
+    }
+
+    /** Runs the check-then-record loop over {@code rows[from, to)}, or rows {@code from..to} when null. */
+    private static void markRows(long[] timestamps, int[] rows, int from, int to, byte[] status,
+                                 byte record, byte checkOnly, byte duplicate, DuplicateDetector seen) {
+        for (int i = from; i < to; i++) {
+            int row = rows == null ? i : rows[i];
+            byte current = status[row];
+            if (current != record && current != checkOnly) continue;
+            if (seen.seen(timestamps[row])) {
+                status[row] = duplicate;
+            } else if (current == record) {
+                seen.add(timestamps[row]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    public boolean seen(long timestamp) {
+        if (timestamp == TransactionBatch.NO_DATE) return seenNoDate;
+        if (inBitmap(timestamp)) {
+            long offset = timestamp - origin;
+            return (bitmap[(int) (offset >>> 6)] & (1L << offset)) != 0;
+        }
+        return hashed != null && hashed.contains(timestamp);
+    }
+
+    public void add(long timestamp) {
+        if (timestamp == TransactionBatch.NO_DATE) {
+            seenNoDate = true;
+        } else if (inBitmap(timestamp)) {
+            long offset = timestamp - origin;
+            bitmap[(int) (offset >>> 6)] |= 1L << offset;
+        } else {
+            // only reached in bitmap mode for timestamps outside the sized range
+            if (hashed == null) hashed = new LongHashSet(16);
+            hashed.add(timestamp);
+        }
+    }
+
+    private boolean inBitmap(long timestamp) {
+        if (bitmap == null) return false;
+        long offset = timestamp - origin;
+        return offset >= 0 && (offset >>> 6) < bitmap.length;
+    }
+
+    /** Records {@code timestamp}; returns false when it had already been recorded. */
+    public boolean firstSeen(long timestamp) {
+        if (seen(timestamp)) return false;
+        add(timestamp);
+        return true;
+    }
+}
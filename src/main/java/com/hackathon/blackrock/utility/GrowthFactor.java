@@ -0,0 +1,40 @@
+package com.hackathon.blackrock.utility;
+
+/**
+ * Compounding and inflation multipliers for one (rate, frequency, inflation, years)
+ * combination, each computed once, so returns on any principal cost a single multiply.
+ */
+public final class GrowthFactor {
+
+    private final double nominal;
+    private final double real;
+
+    private GrowthFactor(double nominal, double real) {
+        this.nominal = nominal;
+        this.real = real;
+    }
+
+    /**
+     * @param rate      annual rate, compounded {@code frequency} times a year
+     * @param inflation annual inflation the final amount is discounted by
+     */
+    public static GrowthFactor of(double rate, int frequency, double inflation, int years) {
+        double nominal = Math.pow(1 + rate / frequency, (double) frequency * years);
+        return new GrowthFactor(nominal, nominal / Math.pow(1 + inflation, years));
+    }
+
+    /** Final amount per unit invested. */
+    public double nominal() {
+        return nominal;
+    }
+
+    /** Final amount per unit invested, in today's money. */
+    public double real() {
+        return real;
+    }
+
+    /** Inflation-adjusted amount less the nominal final amount, for {@code principal} invested. */
+    public double profit(double principal) {
+        return principal * (real - nominal);
+    }
+}
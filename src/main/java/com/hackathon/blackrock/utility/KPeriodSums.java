@@ -0,0 +1,76 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.KPeriod;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running per-k-period sums that take values one at a time.
+ *
+ * k boundaries split the timeline into disjoint segments, and every k period is a contiguous
+ * run of them. Values are added to their segment in a Fenwick tree, so adding a value and
+ * reading one k period's sum are both O(log segments), however many k periods overlap.
+ */
+public final class KPeriodSums {
+
+    private final long[] bounds;
+    private final long[] tree;
+    // per k period: first segment and one past the last, in tree order
+    private final int[] fromSegment;
+    private final int[] toSegment;
+
+    public KPeriodSums(List<KPeriod> kPeriods) {
+        int n = kPeriods.size();
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        long[] all = new long[2 * n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = PeriodIndex.toEpochSecond(kPeriods.get(i).getStart());
+            ends[i] = PeriodIndex.toEpochSecond(kPeriods.get(i).getEnd()) + 1; // inclusive -> half-open
+            all[2 * i] = starts[i];
+            all[2 * i + 1] = ends[i];
+        }
+        Arrays.sort(all);
+        this.bounds = PrimitiveArrays.distinct(all);
+        this.tree = new long[bounds.length + 1];
+
+        this.fromSegment = new int[n];
+        this.toSegment = new int[n];
+        for (int i = 0; i < n; i++) {
+            fromSegment[i] = PrimitiveArrays.lowerBound(bounds, starts[i]);
+            // an inverted range is left empty, as it never matches
+            toSegment[i] = Math.max(fromSegment[i], PrimitiveArrays.lowerBound(bounds, ends[i]));
+        }
+    }
+
+    public void add(long epochSecond, long value) {
+        int segment = PrimitiveArrays.floorIndex(bounds, epochSecond);
+        if (segment < 0) return; // before every k period
+        for (int i = segment + 1; i < tree.length; i += i & -i) {
+            tree[i] += value;
+        }
+    }
+
+    /** Sum of the values added inside k period {@code k}, in request order. */
+    public long sum(int k) {
+        return prefix(toSegment[k]) - prefix(fromSegment[k]);
+    }
+
+    public long[] sums() {
+        long[] sums = new long[fromSegment.length];
+        for (int k = 0; k < sums.length; k++) {
+            sums[k] = sum(k);
+        }
+        return sums;
+    }
+
+    /** Sum over the first {@code segments} segments. */
+    private long prefix(int segments) {
+        long sum = 0;
+        for (int i = segments; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
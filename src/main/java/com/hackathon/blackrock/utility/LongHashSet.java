@@ -0,0 +1,76 @@
+package com.hackathon.blackrock.utility;
+
+/**
+ * Open-addressing set of primitive longs with linear probing. No boxing and no per-entry
+ * nodes: one {@code long[]} holds every key.
+ */
+public final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // 0 marks an empty slot, so the key 0 itself is tracked on the side
+    private long[] slots;
+    private boolean containsZero;
+    private int size;
+    private int mask;
+
+    public LongHashSet(int expectedSize) {
+        // keep the load factor at or below 1/2
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize) * 2 - 1) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) return containsZero;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long current = slots[i];
+            if (current == 0) return false;
+            if (current == key) return true;
+        }
+    }
+
+    /** Adds {@code key}; returns false when it was already present. */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int i = slot(key);
+        while (slots[i] != 0) {
+            if (slots[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = key;
+        if (++size > slots.length / 2) rehash();
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // fmix64 from MurmurHash3: timestamps differ mostly in their low bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private void rehash() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        mask = slots.length - 1;
+        for (long key : old) {
+            if (key == 0) continue;
+            int i = slot(key);
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = key;
+        }
+    }
+}
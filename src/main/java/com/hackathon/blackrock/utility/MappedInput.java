@@ -0,0 +1,88 @@
+package com.hackathon.blackrock.utility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file read through read-only memory-mapped windows, so parsers work on the page cache
+ * directly instead of copying the file onto the heap. A single mapping is limited to 2 GB,
+ * so larger files are read window by window; each window is released once unreachable.
+ */
+public final class MappedInput implements Closeable {
+
+    private final FileChannel channel;
+    private final long size;
+    private final int window;
+
+    private MappedInput(FileChannel channel, int window) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.window = window;
+    }
+
+    /** Opens {@code path} for reading in windows of at most {@code window} bytes. */
+    public static MappedInput open(Path path, int window) throws IOException {
+        if (window < 1) throw new IllegalArgumentException("Window must be at least one byte");
+        return new MappedInput(FileChannel.open(path, StandardOpenOption.READ), window);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int window() {
+        return window;
+    }
+
+    /** The window starting at {@code position}: up to {@link #window()} bytes, fewer at the end of the file. */
+    public MappedByteBuffer map(long position) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+    }
+
+    /** The whole file as one buffer, for formats that cannot be split; at most 2 GB. */
+    public MappedByteBuffer mapAll() throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("File is too large to map at once: " + size + " bytes");
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /** The file as a stream over consecutive windows, for parsers that read from an {@link InputStream}. */
+    public InputStream stream() {
+        return new InputStream() {
+            private long next;
+            private MappedByteBuffer current;
+
+            @Override
+            public int read() throws IOException {
+                if (!advance()) return -1;
+                return current.get() & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) return 0;
+                if (!advance()) return -1;
+                int count = Math.min(length, current.remaining());
+                current.get(buffer, offset, count);
+                return count;
+            }
+
+            private boolean advance() throws IOException {
+                if (current != null && current.hasRemaining()) return true;
+                if (next >= size) return false;
+                current = map(next);
+                next += current.limit();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
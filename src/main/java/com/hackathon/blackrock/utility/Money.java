@@ -0,0 +1,48 @@
+package com.hackathon.blackrock.utility;
+
+/**
+ * Fixed-point money arithmetic on {@code long} paise. Amounts are converted once on the way
+ * in and once on the way out; everything in between (ceilings, remanents, sums) is exact.
+ */
+public final class Money {
+
+    /** Paise per rupee. */
+    public static final long SCALE = 100;
+
+    /** Expenses round up to the next multiple of ₹100. */
+    public static final long CEILING_STEP = 100 * SCALE;
+
+    // how far from a whole paisa a value may be and still count as one, in paise: half of the
+    // validator's old ₹0.001 epsilon, so an amount and remanent off by it together stay within it
+    private static final double PAISE_TOLERANCE = 0.05;
+
+    private Money() {
+    }
+
+    public static long toMinor(double rupees) {
+        return Math.round(rupees * SCALE);
+    }
+
+    /** False when {@code rupees} has a fraction of a paisa, which {@link #toMinor} would round away. */
+    public static boolean isWholeMinor(double rupees) {
+        double minor = rupees * SCALE;
+        return Math.abs(minor - Math.rint(minor)) < PAISE_TOLERANCE;
+    }
+
+    public static double toRupees(long minor) {
+        return minor / (double) SCALE;
+    }
+
+    /** Next multiple of ₹100 at or above the amount; 0 for non-positive amounts. */
+    public static long ceiling(long amount) {
+        if (amount <= 0) return 0;
+        long rest = amount % CEILING_STEP;
+        return rest == 0 ? amount : amount - rest + CEILING_STEP;
+    }
+
+    /** Spare change between the amount and its ceiling; 0 for non-positive amounts. */
+    public static long remanent(long amount) {
+        if (amount <= 0) return 0;
+        return ceiling(amount) - amount;
+    }
+}
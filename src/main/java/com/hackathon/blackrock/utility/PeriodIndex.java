@@ -0,0 +1,171 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Pre-sorted lookup structure for q and p period rules.
+ *
+ * Period boundaries are swept once and flattened into disjoint segments: each q segment
+ * holds the period that wins there (latest start, first in request order on a tie) and
+ * each p segment holds the sum of every extra active there, in paise. Lookups are a binary
+ * search.
+ *
+ * Timestamps are compared at second resolution, which is the resolution of the wire format.
+ */
+public final class PeriodIndex {
+
+    private final List<QPeriod> qPeriods;
+    private long[] qBounds;
+    private int[] qWinners;
+    private long[] qFixed;
+
+    private long[] pBounds;
+    private long[] pSums;
+
+    private PeriodIndex(List<QPeriod> qPeriods, List<PPeriod> pPeriods) {
+        this.qPeriods = qPeriods;
+        indexQ();
+        indexP(pPeriods);
+    }
+
+    public static PeriodIndex of(List<QPeriod> qPeriods, List<PPeriod> pPeriods) {
+        return new PeriodIndex(qPeriods == null ? List.of() : qPeriods,
+                pPeriods == null ? List.of() : pPeriods);
+    }
+
+    public static long toEpochSecond(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** The q period that overrides the remanent at {@code date}, or null. */
+    public QPeriod findQ(LocalDateTime date) {
+        return findQ(toEpochSecond(date));
+    }
+
+    public QPeriod findQ(long epochSecond) {
+        int segment = PrimitiveArrays.floorIndex(qBounds, epochSecond);
+        if (segment < 0) return null;
+        int winner = qWinners[segment];
+        return winner < 0 ? null : qPeriods.get(winner);
+    }
+
+    /** Sum in paise of every p extra whose range contains {@code date}. */
+    public long sumP(LocalDateTime date) {
+        return sumP(toEpochSecond(date));
+    }
+
+    public long sumP(long epochSecond) {
+        int segment = PrimitiveArrays.floorIndex(pBounds, epochSecond);
+        return segment < 0 ? 0 : pSums[segment];
+    }
+
+    /** Applies q (replace) then p (add) to the base remanent. */
+    public double apply(LocalDateTime date, double remanent) {
+        return Money.toRupees(apply(toEpochSecond(date), Money.toMinor(remanent)));
+    }
+
+    /** Paise variant of {@link #apply(LocalDateTime, double)}. */
+    public long apply(long epochSecond, long remanent) {
+        int segment = PrimitiveArrays.floorIndex(qBounds, epochSecond);
+        if (segment >= 0 && qWinners[segment] >= 0) {
+            remanent = qFixed[qWinners[segment]];
+        }
+        return remanent + sumP(epochSecond);
+    }
+
+    private void indexQ() {
+        int n = qPeriods.size();
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        long[] fixed = new long[n];
+        long[] bounds = new long[2 * n];
+        for (int i = 0; i < n; i++) {
+            QPeriod q = qPeriods.get(i);
+            fixed[i] = Money.toMinor(q.getFixed());
+            starts[i] = toEpochSecond(q.getStart());
+            ends[i] = toEpochSecond(q.getEnd());
+            bounds[2 * i] = starts[i];
+            bounds[2 * i + 1] = ends[i] + 1; // ranges are inclusive, segments are half-open
+        }
+        Arrays.sort(bounds);
+        bounds = PrimitiveArrays.distinct(bounds);
+
+        Integer[] byStart = new Integer[n];
+        for (int i = 0; i < n; i++) byStart[i] = i;
+        Arrays.sort(byStart, (a, b) -> Long.compare(starts[a], starts[b]));
+
+        // latest start on top, earliest request position on a tie
+        PriorityQueue<Integer> active = new PriorityQueue<>((a, b) -> {
+            int cmp = Long.compare(starts[b], starts[a]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+
+        int[] winners = new int[bounds.length];
+        int next = 0;
+        for (int s = 0; s < bounds.length; s++) {
+            long bound = bounds[s];
+            while (next < n && starts[byStart[next]] <= bound) {
+                active.add(byStart[next++]);
+            }
+            // bounds only grow, so a period that has ended never becomes active again
+            while (!active.isEmpty() && ends[active.peek()] < bound) {
+                active.poll();
+            }
+            winners[s] = active.isEmpty() ? -1 : active.peek();
+        }
+        this.qBounds = bounds;
+        this.qWinners = winners;
+        this.qFixed = fixed;
+    }
+
+    private void indexP(List<PPeriod> pPeriods) {
+        int n = 0;
+        long[] starts = new long[pPeriods.size()];
+        long[] ends = new long[pPeriods.size()];
+        long[] startExtras = new long[pPeriods.size()];
+        for (PPeriod p : pPeriods) {
+            long start = toEpochSecond(p.getStart());
+            long end = toEpochSecond(p.getEnd());
+            if (start > end) continue; // an inverted range never matches
+            starts[n] = start;
+            ends[n] = end + 1;
+            startExtras[n] = Money.toMinor(p.getExtra());
+            n++;
+        }
+        starts = Arrays.copyOf(starts, n);
+        ends = Arrays.copyOf(ends, n);
+        startExtras = Arrays.copyOf(startExtras, n);
+        long[] endExtras = startExtras.clone();
+        PrimitiveArrays.sort(starts, startExtras);
+        PrimitiveArrays.sort(ends, endExtras);
+
+        long[] bounds = new long[2 * n];
+        System.arraycopy(starts, 0, bounds, 0, n);
+        System.arraycopy(ends, 0, bounds, n, n);
+        Arrays.sort(bounds);
+        bounds = PrimitiveArrays.distinct(bounds);
+
+        long[] sums = new long[bounds.length];
+        long running = 0;
+        int opened = 0, closed = 0;
+        for (int s = 0; s < bounds.length; s++) {
+            long bound = bounds[s];
+            while (opened < n && starts[opened] == bound) {
+                running += startExtras[opened++];
+            }
+            while (closed < n && ends[closed] == bound) {
+                running -= endExtras[closed++];
+            }
+            sums[s] = running;
+        }
+        this.pBounds = bounds;
+        this.pSums = sums;
+    }
+}
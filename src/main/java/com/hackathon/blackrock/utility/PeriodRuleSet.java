@@ -0,0 +1,78 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled form of a request's q, p and k periods. Immutable once built, so one instance
+ * can be shared by every request that carries the same period config.
+ */
+public final class PeriodRuleSet {
+
+    private final PeriodIndex periodIndex;
+    private final List<KPeriod> kPeriods;
+
+    // k starts and ends sorted independently: a date is covered while more ranges
+    // have started than have ended before it
+    private final long[] kStarts;
+    private final long[] kEnds;
+
+    private PeriodRuleSet(PeriodIndex periodIndex, List<KPeriod> kPeriods, long[] kStarts, long[] kEnds) {
+        this.periodIndex = periodIndex;
+        this.kPeriods = kPeriods;
+        this.kStarts = kStarts;
+        this.kEnds = kEnds;
+    }
+
+    public static PeriodRuleSet compile(List<QPeriod> qPeriods, List<PPeriod> pPeriods, List<KPeriod> kPeriods) {
+        List<KPeriod> k = kPeriods == null ? List.of() : kPeriods;
+
+        long[] starts = new long[k.size()];
+        long[] ends = new long[k.size()];
+        int n = 0;
+        for (KPeriod period : k) {
+            long start = PeriodIndex.toEpochSecond(period.getStart());
+            long end = PeriodIndex.toEpochSecond(period.getEnd());
+            if (start > end) continue; // an inverted range never matches
+            starts[n] = start;
+            ends[n] = end;
+            n++;
+        }
+        starts = Arrays.copyOf(starts, n);
+        ends = Arrays.copyOf(ends, n);
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+
+        return new PeriodRuleSet(PeriodIndex.of(qPeriods, pPeriods), k, starts, ends);
+    }
+
+    public PeriodIndex periodIndex() {
+        return periodIndex;
+    }
+
+    public List<KPeriod> kPeriods() {
+        return kPeriods;
+    }
+
+    /** Remanent in paise after q (replace) and p (add) rules. */
+    public long remanentAt(long epochSecond, long remanent) {
+        return periodIndex.apply(epochSecond, remanent);
+    }
+
+    /** True when {@code date} falls in at least one k period, or when no k periods were given. */
+    public boolean inAnyKPeriod(LocalDateTime date) {
+        return inAnyKPeriod(PeriodIndex.toEpochSecond(date));
+    }
+
+    public boolean inAnyKPeriod(long epochSecond) {
+        if (kPeriods.isEmpty()) return true;
+        int started = PrimitiveArrays.upperBound(kStarts, epochSecond);
+        int ended = PrimitiveArrays.lowerBound(kEnds, epochSecond);
+        return started > ended;
+    }
+}
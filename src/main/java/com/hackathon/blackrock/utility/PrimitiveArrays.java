@@ -0,0 +1,124 @@
+package com.hackathon.blackrock.utility;
+
+import java.util.Arrays;
+
+/**
+ * Sort and search helpers over primitive arrays, so the index structures never box keys.
+ */
+public final class PrimitiveArrays {
+
+    private static final int INSERTION_THRESHOLD = 24;
+
+    private PrimitiveArrays() {
+    }
+
+    /** Sorts {@code keys} ascending, moving {@code values} along with them. */
+    public static void sort(long[] keys, long[] values) {
+        if (isSorted(keys)) return;
+        quickSort(keys, values, 0, keys.length - 1);
+    }
+
+    public static boolean isSorted(long[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] > keys[i]) return false;
+        }
+        return true;
+    }
+
+    /** Compacts a sorted array down to its distinct values. */
+    public static long[] distinct(long[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[size++] = sorted[i];
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /** Index of the last element {@code <= key}, or -1. */
+    public static int floorIndex(long[] sorted, long key) {
+        return upperBound(sorted, key) - 1;
+    }
+
+    /** Number of elements {@code < key}. */
+    public static int lowerBound(long[] sorted, long key) {
+        return lowerBound(sorted, sorted.length, key);
+    }
+
+    /** Number of elements {@code < key} among the first {@code length}. */
+    public static int lowerBound(long[] sorted, int length, long key) {
+        int lo = 0, hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Number of elements {@code <= key}. */
+    public static int upperBound(long[] sorted, long key) {
+        return upperBound(sorted, sorted.length, key);
+    }
+
+    /** Number of elements {@code <= key} among the first {@code length}. */
+    public static int upperBound(long[] sorted, int length, long key) {
+        int lo = 0, hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void quickSort(long[] keys, long[] values, int lo, int hi) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            int mid = (lo + hi) >>> 1;
+            // median of three as the pivot keeps already-ordered runs from degrading
+            if (keys[mid] < keys[lo]) swap(keys, values, mid, lo);
+            if (keys[hi] < keys[lo]) swap(keys, values, hi, lo);
+            if (keys[hi] < keys[mid]) swap(keys, values, hi, mid);
+            long pivot = keys[mid];
+
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) swap(keys, values, i++, j--);
+            }
+            // recurse into the smaller half to bound stack depth
+            if (j - lo < hi - i) {
+                quickSort(keys, values, lo, j);
+                lo = i;
+            } else {
+                quickSort(keys, values, i, hi);
+                hi = j;
+            }
+        }
+        insertionSort(keys, values, lo, hi);
+    }
+
+    private static void insertionSort(long[] keys, long[] values, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long key = keys[i];
+            long value = values[i];
+            int j = i - 1;
+            while (j >= lo && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    private static void swap(long[] keys, long[] values, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hackathon.blackrock.utility;
+
+import java.util.Arrays;
+
+/**
+ * Sorted timestamps with a cumulative sum of their values, so the total over any inclusive
+ * time range is two binary searches and a subtraction. Values are money in paise, so the
+ * sums are exact.
+ *
+ * An index can also grow one value at a time. Values arriving in time order extend the sums in
+ * place; one arriving earlier than the last leaves the index to be re-sorted once, on the next
+ * query or {@link #sort()}. Since any query may do that sort, an index that is still being added
+ * to must be locked for queries as well as adds; one built by {@link #of} and never added to
+ * can be queried from any number of threads.
+ */
+public final class RangeSumIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] timestamps;
+    // prefixSums[i] is the sum of the first i values, in the current order
+    private long[] prefixSums;
+    private int size;
+    private boolean unsorted;
+
+    private RangeSumIndex(long[] timestamps, long[] prefixSums, int size) {
+        this.timestamps = timestamps;
+        this.prefixSums = prefixSums;
+        this.size = size;
+    }
+
+    /** Takes ownership of both arrays; they are sorted in place. */
+    public static RangeSumIndex of(long[] timestamps, long[] values) {
+        PrimitiveArrays.sort(timestamps, values);
+        return new RangeSumIndex(timestamps, prefixSums(values, values.length), values.length);
+    }
+
+    /** An empty index to {@link #add} to. */
+    public static RangeSumIndex empty() {
+        return new RangeSumIndex(new long[INITIAL_CAPACITY], new long[INITIAL_CAPACITY + 1], 0);
+    }
+
+    /** O(1) amortized when {@code timestamp} is not before the last one added. */
+    public void add(long timestamp, long value) {
+        if (size == timestamps.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            prefixSums = Arrays.copyOf(prefixSums, capacity + 1);
+        }
+        if (size > 0 && timestamp < timestamps[size - 1]) unsorted = true;
+        timestamps[size] = timestamp;
+        prefixSums[size + 1] = prefixSums[size] + value;
+        size++;
+    }
+
+    /** Sum of the values whose timestamp lies in {@code [start, end]}. */
+    public long sum(long start, long end) {
+        sort();
+        int from = PrimitiveArrays.lowerBound(timestamps, size, start);
+        int to = PrimitiveArrays.upperBound(timestamps, size, end);
+        return to <= from ? 0 : prefixSums[to] - prefixSums[from];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Puts values added out of time order in place; a no-op when there are none. */
+    public void sort() {
+        if (!unsorted) return;
+        // values are recovered from the sums, re-sorted with their timestamps, and summed again
+        long[] keys = Arrays.copyOf(timestamps, size);
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = prefixSums[i + 1] - prefixSums[i];
+        }
+        PrimitiveArrays.sort(keys, values);
+        timestamps = keys;
+        prefixSums = prefixSums(values, size);
+        unsorted = false;
+    }
+
+    private static long[] prefixSums(long[] values, int size) {
+        long[] sums = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            sums[i + 1] = sums[i] + values[i];
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,152 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.FilterRequest;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 of a bound request, fed field by field in a fixed order straight from the bound values.
+ * Bodies that differ only in whitespace, field order, number spelling or wire format bind to the
+ * same values and so digest the same, without the request being serialized again.
+ */
+public final class RequestDigest {
+
+    private final MessageDigest digest;
+    // fields are staged here and hashed a buffer at a time
+    private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+    private RequestDigest() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String of(ReturnsRequest request) {
+        RequestDigest d = new RequestDigest();
+        d.putString(request.getUserId());
+        d.putInt(request.getAge());
+        d.putDouble(request.getWage());
+        d.putDouble(request.getInflation());
+        d.putString(request.getTaxRegime());
+        d.putQ(request.getQ());
+        d.putP(request.getP());
+        d.putK(request.getK());
+        d.putTransactions(request.getTransactions());
+        return d.finish();
+    }
+
+    public static String of(FilterRequest request) {
+        RequestDigest d = new RequestDigest();
+        d.putDouble(request.getWage());
+        d.putQ(request.getQ());
+        d.putP(request.getP());
+        d.putK(request.getK());
+        d.putTransactions(request.getTransactions());
+        return d.finish();
+    }
+
+    private void putQ(List<QPeriod> periods) {
+        if (putSize(periods)) {
+            for (QPeriod period : periods) {
+                putDouble(period.getFixed());
+                putDate(period.getStart());
+                putDate(period.getEnd());
+            }
+        }
+    }
+
+    private void putP(List<PPeriod> periods) {
+        if (putSize(periods)) {
+            for (PPeriod period : periods) {
+                putDouble(period.getExtra());
+                putDate(period.getStart());
+                putDate(period.getEnd());
+            }
+        }
+    }
+
+    private void putK(List<KPeriod> periods) {
+        if (putSize(periods)) {
+            for (KPeriod period : periods) {
+                putDate(period.getStart());
+                putDate(period.getEnd());
+            }
+        }
+    }
+
+    private void putTransactions(List<Transaction> transactions) {
+        if (putSize(transactions)) {
+            for (Transaction txn : transactions) {
+                putDate(txn.getDate());
+                putDouble(txn.getAmount());
+                putDouble(txn.getCeiling());
+                putDouble(txn.getRemanent());
+                Boolean inKPeriod = txn.getInKPeriod();
+                reserve(1).put(inKPeriod == null ? (byte) 2 : inKPeriod ? (byte) 1 : (byte) 0);
+            }
+        }
+    }
+
+    /** Writes the size, -1 for an absent list; true when there are elements to write. */
+    private boolean putSize(List<?> list) {
+        putInt(list == null ? -1 : list.size());
+        return list != null && !list.isEmpty();
+    }
+
+    private void putDate(LocalDateTime date) {
+        if (date == null) {
+            reserve(1).put((byte) 0);
+        } else {
+            reserve(13).put((byte) 1).putLong(date.toEpochSecond(ZoneOffset.UTC)).putInt(date.getNano());
+        }
+    }
+
+    private void putDouble(double value) {
+        // -0.0 binds from "-0" and means the same as 0
+        reserve(8).putLong(value == 0 ? 0L : Double.doubleToLongBits(value));
+    }
+
+    private void putInt(int value) {
+        reserve(4).putInt(value);
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        flush();
+        digest.update(bytes);
+    }
+
+    private ByteBuffer reserve(int bytes) {
+        if (buffer.remaining() < bytes) flush();
+        return buffer;
+    }
+
+    private void flush() {
+        digest.update(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    private String finish() {
+        flush();
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,142 @@
+package com.hackathon.blackrock.utility;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Stage-by-stage timings of one sampled request: wall time, rows in and out, and bytes the
+ * request thread allocated during the stage. Only sampled requests get a trace; everywhere
+ * else {@link Span#NOOP} stands in, so an untraced stage costs one thread-local lookup.
+ *
+ * Allocation is read from the calling thread, so work a stage hands to a fork-join pool is
+ * timed but its allocations are not counted.
+ */
+public final class StageTrace {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private String[] names = new String[8];
+    private long[] nanos = new long[8];
+    private long[] rowsIn = new long[8];
+    private long[] rowsOut = new long[8];
+    private long[] allocated = new long[8];
+    // a stage left open, e.g. by an exception, holds its start time rather than a duration
+    private boolean[] ended = new boolean[8];
+    private int size;
+
+    // a stage whose start and end are reported by different callbacks, e.g. body binding
+    private Span pending = Span.NOOP;
+
+    public Span open(String name, long rows) {
+        if (size == names.length) grow();
+        int index = size++;
+        names[index] = name;
+        rowsIn[index] = rows;
+        allocated[index] = allocatedBytes();
+        ended[index] = false;
+        nanos[index] = System.nanoTime();
+        return new Span(this, index);
+    }
+
+    public void setPending(Span span) {
+        this.pending = span;
+    }
+
+    /** Ends the pending stage, if any. */
+    public void endPending(long rows) {
+        pending.end(rows);
+        pending = Span.NOOP;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int stage) {
+        return names[stage];
+    }
+
+    public long nanos(int stage) {
+        return nanos[stage];
+    }
+
+    public long rowsIn(int stage) {
+        return rowsIn[stage];
+    }
+
+    public long rowsOut(int stage) {
+        return rowsOut[stage];
+    }
+
+    public long allocated(int stage) {
+        return allocated[stage];
+    }
+
+    /** False for a stage that was opened but never ended; its timings are meaningless. */
+    public boolean ended(int stage) {
+        return ended[stage];
+    }
+
+    /** The stages as a Server-Timing header value, durations in milliseconds. */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (!ended[i]) continue;
+            if (header.length() > 0) header.append(", ");
+            header.append(names[i]).append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.3f", nanos[i] / 1_000_000.0))
+                    .append(";desc=\"rows ").append(rowsIn[i]).append("->").append(rowsOut[i])
+                    .append(", ").append(allocated[i]).append(" B\"");
+        }
+        return header.toString();
+    }
+
+    private void close(int index, long rows) {
+        if (ended[index]) return;
+        ended[index] = true;
+        nanos[index] = System.nanoTime() - nanos[index];
+        allocated[index] = Math.max(0, allocatedBytes() - allocated[index]);
+        rowsOut[index] = rows;
+    }
+
+    private void grow() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        nanos = Arrays.copyOf(nanos, capacity);
+        rowsIn = Arrays.copyOf(rowsIn, capacity);
+        rowsOut = Arrays.copyOf(rowsOut, capacity);
+        allocated = Arrays.copyOf(allocated, capacity);
+        ended = Arrays.copyOf(ended, capacity);
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    /** One open stage; {@link #end} records it. */
+    public static final class Span {
+
+        public static final Span NOOP = new Span(null, -1);
+
+        private final StageTrace trace;
+        private final int index;
+
+        private Span(StageTrace trace, int index) {
+            this.trace = trace;
+            this.index = index;
+        }
+
+        public void end(long rowsOut) {
+            if (trace != null) trace.close(index, rowsOut);
+        }
+    }
+}
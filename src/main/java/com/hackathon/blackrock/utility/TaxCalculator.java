@@ -1,25 +1,13 @@
 package com.hackathon.blackrock.utility;
 
+/** Tax under {@link TaxRegime#DEFAULT}; see {@link TaxRegime} for other regimes. */
 public class TaxCalculator {
     public static double computeTax(double income) {
-        if (income <= 700_000)   return 0;
-        if (income <= 1_000_000) return (income - 700_000) * 0.10;
-
-        double tax = 30_000;
-        if (income <= 1_200_000) return tax + (income - 1_000_000) * 0.15;
-
-        tax += 30_000;
-        if (income <= 1_500_000) return tax + (income - 1_200_000) * 0.20;
-
-        tax += 60_000;
-        return tax + (income - 1_500_000) * 0.30;
+        return TaxRegime.DEFAULT.computeTax(income);
     }
 
 
     public static double computeTaxBenefit(double invested, double annualIncome) {
-        double npsDeduction = Math.min(invested,
-                Math.min(annualIncome * 0.10, 200_000));
-
-        return computeTax(annualIncome) - computeTax(annualIncome - npsDeduction);
+        return TaxRegime.DEFAULT.assess(annualIncome).benefit(invested);
     }
 }
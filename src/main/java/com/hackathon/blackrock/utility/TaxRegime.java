@@ -0,0 +1,127 @@
+package com.hackathon.blackrock.utility;
+
+import java.util.Arrays;
+
+/**
+ * Compiled income-tax slabs plus the NPS deduction rule.
+ *
+ * Slab {@code i} starts at {@code thresholds[i]} and taxes income above it at {@code rates[i]};
+ * {@code baseTax[i]} is the tax already due at that threshold, so the tax on any income is one
+ * slab lookup and one multiply-add. Slabs are few, so the lookup is a linear count rather than
+ * a binary search, with no data-dependent branches.
+ */
+public final class TaxRegime {
+
+    /** The slabs {@link TaxCalculator} has always used. */
+    public static final TaxRegime DEFAULT = of("default",
+            new double[]{0, 700_000, 1_000_000, 1_200_000, 1_500_000},
+            new double[]{0, 0.10, 0.15, 0.20, 0.30},
+            0.10, 200_000);
+
+    private final String name;
+    private final double[] thresholds;
+    private final double[] rates;
+    private final double[] baseTax;
+    private final double deductionRate;
+    private final double deductionCap;
+
+    private TaxRegime(String name, double[] thresholds, double[] rates, double deductionRate, double deductionCap) {
+        this.name = name;
+        this.thresholds = thresholds;
+        this.rates = rates;
+        this.deductionRate = deductionRate;
+        this.deductionCap = deductionCap;
+        this.baseTax = new double[thresholds.length];
+        for (int i = 1; i < thresholds.length; i++) {
+            baseTax[i] = baseTax[i - 1] + (thresholds[i] - thresholds[i - 1]) * rates[i - 1];
+        }
+    }
+
+    /**
+     * @param thresholds ascending slab starts, the first one 0
+     * @param rates      marginal rate for each slab
+     * @param deductionRate share of annual income that NPS contributions may deduct
+     * @param deductionCap  absolute cap on the NPS deduction
+     */
+    public static TaxRegime of(String name, double[] thresholds, double[] rates,
+                               double deductionRate, double deductionCap) {
+        if (thresholds.length == 0 || thresholds.length != rates.length) {
+            throw new IllegalArgumentException("Tax regime " + name + " needs one rate per slab threshold");
+        }
+        if (thresholds[0] != 0) {
+            throw new IllegalArgumentException("Tax regime " + name + " must start its first slab at 0");
+        }
+        for (int i = 1; i < thresholds.length; i++) {
+            if (thresholds[i] <= thresholds[i - 1]) {
+                throw new IllegalArgumentException("Tax regime " + name + " slab thresholds must be ascending");
+            }
+        }
+        return new TaxRegime(name, thresholds.clone(), rates.clone(), deductionRate, deductionCap);
+    }
+
+    /** Parses slabs written as {@code threshold:rate} pairs, e.g. {@code 0:0,700000:0.10}. */
+    public static TaxRegime parse(String name, String slabs, double deductionRate, double deductionCap) {
+        String[] pairs = slabs.split(",");
+        double[] thresholds = new double[pairs.length];
+        double[] rates = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            String[] parts = pairs[i].trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Tax regime " + name + " has a malformed slab: " + pairs[i]);
+            }
+            thresholds[i] = Double.parseDouble(parts[0].trim());
+            rates[i] = Double.parseDouble(parts[1].trim());
+        }
+        return of(name, thresholds, rates, deductionRate, deductionCap);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public double computeTax(double income) {
+        // slabs start inclusive of the threshold; the tax is continuous there so either side agrees
+        int slab = -1;
+        for (double threshold : thresholds) {
+            slab += income > threshold ? 1 : 0;
+        }
+        if (slab < 0) return 0;
+        return baseTax[slab] + (income - thresholds[slab]) * rates[slab];
+    }
+
+    /** Fixes the annual income, so the tax on it is computed once for any number of benefits. */
+    public Assessment assess(double annualIncome) {
+        return new Assessment(annualIncome);
+    }
+
+    @Override
+    public String toString() {
+        return name + Arrays.toString(thresholds) + Arrays.toString(rates);
+    }
+
+    /** Tax benefits for one annual income, with the tax on that income computed up front. */
+    public final class Assessment {
+        private final double annualIncome;
+        private final double incomeTax;
+        private final double maxDeduction;
+
+        private Assessment(double annualIncome) {
+            this.annualIncome = annualIncome;
+            this.incomeTax = computeTax(annualIncome);
+            this.maxDeduction = Math.min(annualIncome * deductionRate, deductionCap);
+        }
+
+        public double benefit(double invested) {
+            return incomeTax - computeTax(annualIncome - Math.min(invested, maxDeduction));
+        }
+
+        /** Benefit for each amount in {@code invested}, e.g. one per k period. */
+        public double[] benefits(double[] invested) {
+            double[] benefits = new double[invested.length];
+            for (int i = 0; i < invested.length; i++) {
+                benefits[i] = benefit(invested[i]);
+            }
+            return benefits;
+        }
+    }
+}
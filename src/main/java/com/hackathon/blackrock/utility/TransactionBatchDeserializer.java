@@ -0,0 +1,39 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Reads a JSON array of transactions straight into a {@link TransactionBatch}. Each element is
+ * bound as a {@link Transaction}, so dates, coercions and errors are those of the request DTOs,
+ * but it is dropped as soon as its row is added: only the columns are kept.
+ */
+public final class TransactionBatchDeserializer extends ValueDeserializer<TransactionBatch> {
+
+    @Override
+    public TransactionBatch deserialize(JsonParser p, DeserializationContext ctxt) {
+        if (!p.isExpectedStartArrayToken()) {
+            return (TransactionBatch) ctxt.handleUnexpectedToken(TransactionBatch.class, p);
+        }
+        TransactionBatch batch = new TransactionBatch();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            batch.add(ctxt.readValue(p, Transaction.class));
+        }
+        return batch;
+    }
+
+    /** {@code "transactions": null} reads as no transactions, as an absent field does. */
+    @Override
+    public TransactionBatch getNullValue(DeserializationContext ctxt) {
+        return new TransactionBatch();
+    }
+
+    @Override
+    public Class<?> handledType() {
+        return TransactionBatch.class;
+    }
+}
@@ -0,0 +1,271 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.TransactionBatch;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Reads transaction rows from a {@link MappedInput} straight into primitives: no per-row
+ * strings or objects are made for well-formed rows, only for values that need the slow path.
+ *
+ * <ul>
+ *   <li>CSV: {@code date,amount[,ceiling,remanent]} per line, with an optional header line.</li>
+ *   <li>NDJSON: one {@code {"date":..,"amount":..[,"ceiling":..,"remanent":..]}} object per line;
+ *       a plain JSON array of them reads the same.</li>
+ *   <li>Frame: a {@link TransactionFrameCodec} frame, decoded in place (at most 2 GB).</li>
+ * </ul>
+ *
+ * A row without a ceiling or remanent gets the one {@code /transactions:parse} would give it.
+ */
+public final class TransactionFileReader {
+
+    public enum Format {
+        CSV, NDJSON, FRAME;
+
+        /** The format named by {@code path}'s extension: .csv, .ndjson/.jsonl/.json, or .brc/.bin. */
+        public static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            String extension = name.substring(name.lastIndexOf('.') + 1);
+            return switch (extension) {
+                case "csv" -> CSV;
+                case "ndjson", "jsonl", "json" -> NDJSON;
+                case "brc", "bin" -> FRAME;
+                default -> throw new IllegalArgumentException("Unknown transaction file type: " + path);
+            };
+        }
+    }
+
+    /**
+     * Receives each row in file order; money in paise, and {@code inPaise} false when a value
+     * had a fraction of a paisa that was rounded away.
+     */
+    @FunctionalInterface
+    public interface RowSink {
+        void row(long timestamp, long amount, long ceiling, long remanent, boolean inPaise);
+    }
+
+    // a value that was absent, or not in the plain form the fast paths handle
+    private static final long MISSING = Long.MIN_VALUE;
+    // digits a double holds exactly, so the fast decimal path agrees with Money.toMinor
+    private static final int MAX_DIGITS = 15;
+
+    private TransactionFileReader() {
+    }
+
+    /** Reads every CSV or NDJSON row into {@code sink} and returns the number of rows. */
+    public static long read(MappedInput in, Format format, ObjectMapper mapper, RowSink sink) throws IOException {
+        return switch (format) {
+            case CSV -> readCsv(in, sink);
+            case NDJSON -> readNdjson(in, mapper, sink);
+            case FRAME -> throw new IllegalArgumentException("Frames are read whole, with TransactionFrameCodec");
+        };
+    }
+
+    private static long readCsv(MappedInput in, RowSink sink) throws IOException {
+        char[] date = new char[WireDates.LENGTH];
+        boolean[] inPaise = new boolean[1];
+        long rows = 0;
+        long line = 0;
+        long position = 0;
+        while (position < in.size()) {
+            MappedByteBuffer buffer = in.map(position);
+            int limit = buffer.limit();
+            boolean last = position + limit >= in.size();
+            int start = 0;
+            while (start < limit) {
+                int end = indexOf(buffer, (byte) '\n', start, limit);
+                if (end < 0) {
+                    if (!last) break; // the line runs past this window; remap from its start
+                    end = limit;
+                }
+                line++;
+                int to = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+                if (to > start && !(line == 1 && isHeader(buffer, start))) {
+                    parseCsvRow(buffer, start, to, line, date, inPaise, sink);
+                    rows++;
+                }
+                start = end + 1;
+            }
+            if (start == 0 && !last) {
+                throw new IllegalArgumentException("Line " + (line + 1) + " is longer than the mapping window");
+            }
+            position += Math.min(start, limit);
+        }
+        return rows;
+    }
+
+    private static boolean isHeader(ByteBuffer buffer, int start) {
+        int first = buffer.get(start);
+        if (first == '"') first = buffer.get(start + 1);
+        return first != ',' && (first < '0' || first > '9');
+    }
+
+    private static void parseCsvRow(ByteBuffer buffer, int from, int to, long line, char[] date, boolean[] inPaise,
+                                    RowSink sink) {
+        inPaise[0] = true;
+        int comma1 = indexOf(buffer, (byte) ',', from, to);
+        if (comma1 < 0) throw new IllegalArgumentException("Line " + line + ": expected date,amount[,ceiling,remanent]");
+        int comma2 = indexOf(buffer, (byte) ',', comma1 + 1, to);
+        int comma3 = comma2 < 0 ? -1 : indexOf(buffer, (byte) ',', comma2 + 1, to);
+        if (comma2 >= 0 && comma3 < 0) {
+            throw new IllegalArgumentException("Line " + line + ": ceiling without remanent");
+        }
+        long timestamp = csvDate(buffer, from, comma1, line, date);
+        long amount = csvMoney(buffer, comma1 + 1, comma2 < 0 ? to : comma2, line, inPaise);
+        long ceiling = comma2 < 0 ? Money.ceiling(amount) : csvMoney(buffer, comma2 + 1, comma3, line, inPaise);
+        long remanent = comma2 < 0 ? Money.remanent(amount) : csvMoney(buffer, comma3 + 1, to, line, inPaise);
+        sink.row(timestamp, amount, ceiling, remanent, inPaise[0]);
+    }
+
+    private static long csvDate(ByteBuffer buffer, int from, int to, long line, char[] date) {
+        from = trimStart(buffer, from, to);
+        to = trimEnd(buffer, from, to);
+        if (from == to) return TransactionBatch.NO_DATE;
+        if (to - from == WireDates.LENGTH) {
+            for (int i = 0; i < WireDates.LENGTH; i++) date[i] = (char) (buffer.get(from + i) & 0xFF);
+            long epochSecond = WireDates.epochSecond(date, 0, WireDates.LENGTH);
+            if (epochSecond != WireDates.INVALID) return epochSecond;
+        }
+        return slowDate(text(buffer, from, to), "Line " + line);
+    }
+
+    private static long csvMoney(ByteBuffer buffer, int from, int to, long line, boolean[] inPaise) {
+        from = trimStart(buffer, from, to);
+        to = trimEnd(buffer, from, to);
+        long paise = decimal(buffer, from, to);
+        if (paise != MISSING) return paise;
+        try {
+            return toMinor(Double.parseDouble(text(buffer, from, to)), inPaise);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + line + ": not a number: " + text(buffer, from, to));
+        }
+    }
+
+    private static long readNdjson(MappedInput in, ObjectMapper mapper, RowSink sink) {
+        long rows = 0;
+        boolean[] inPaise = new boolean[1];
+        try (JsonParser parser = mapper.createParser(in.stream())) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_ARRAY || token == JsonToken.END_ARRAY) continue;
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a transaction object at " + parser.currentLocation());
+                }
+                long timestamp = TransactionBatch.NO_DATE;
+                long amount = 0;
+                long ceiling = MISSING;
+                long remanent = MISSING;
+                inPaise[0] = true;
+                String name;
+                while ((name = parser.nextName()) != null) {
+                    JsonToken value = parser.nextToken();
+                    switch (name) {
+                        case "date" -> timestamp = jsonDate(parser, value);
+                        case "amount" -> amount = jsonMoney(parser, value, 0, inPaise);
+                        case "ceiling" -> ceiling = jsonMoney(parser, value, MISSING, inPaise);
+                        case "remanent" -> remanent = jsonMoney(parser, value, MISSING, inPaise);
+                        default -> parser.skipChildren();
+                    }
+                }
+                sink.row(timestamp, amount,
+                        ceiling == MISSING ? Money.ceiling(amount) : ceiling,
+                        remanent == MISSING ? Money.remanent(amount) : remanent, inPaise[0]);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static long jsonDate(JsonParser parser, JsonToken value) {
+        if (value == JsonToken.VALUE_NULL) return TransactionBatch.NO_DATE;
+        if (value != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException("Expected a date string at " + parser.currentLocation());
+        }
+        long epochSecond = WireDates.epochSecond(parser.getStringCharacters(), parser.getStringOffset(),
+                parser.getStringLength());
+        return epochSecond != WireDates.INVALID ? epochSecond
+                : slowDate(parser.getString(), "At " + parser.currentLocation());
+    }
+
+    private static long jsonMoney(JsonParser parser, JsonToken value, long ifNull, boolean[] inPaise) {
+        if (value == JsonToken.VALUE_NULL) return ifNull;
+        if (value != JsonToken.VALUE_NUMBER_INT && value != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw new IllegalArgumentException("Expected a number at " + parser.currentLocation());
+        }
+        return toMinor(parser.getDoubleValue(), inPaise);
+    }
+
+    private static long toMinor(double rupees, boolean[] inPaise) {
+        if (!Money.isWholeMinor(rupees)) inPaise[0] = false;
+        return Money.toMinor(rupees);
+    }
+
+    // the ISO form with a 'T' is accepted too, as on the HTTP API
+    private static long slowDate(String text, String where) {
+        try {
+            return TransactionBatch.toEpochSecond(LocalDateTime.parse(text.replace('T', ' '), WireDates.FORMATTER));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(where + ": not a yyyy-MM-dd HH:mm:ss date: " + text);
+        }
+    }
+
+    /** Paise of a plain decimal with at most two fraction digits, or {@link #MISSING}. */
+    private static long decimal(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < to; i++) {
+            int c = buffer.get(i);
+            if (c == '.' && fraction < 0) {
+                fraction = 0;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9 || ++digits > MAX_DIGITS) return MISSING;
+            if (fraction >= 0 && ++fraction > 2) return MISSING;
+            units = units * 10 + digit;
+        }
+        if (digits == 0) return MISSING;
+        for (int scale = Math.max(fraction, 0); scale < 2; scale++) units *= 10;
+        return negative ? -units : units;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    private static int trimStart(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) == ' ' || buffer.get(from) == '"')) from++;
+        return from;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int from, int to) {
+        while (to > from && (buffer.get(to - 1) == ' ' || buffer.get(to - 1) == '"')) to--;
+        return to;
+    }
+
+    private static String text(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,298 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.TransactionFrame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar binary encoding of a {@link TransactionFrame}. Integers are LEB128 varints,
+ * signed ones zigzag-encoded; money is in paise and timestamps in UTC epoch seconds.
+ *
+ * <pre>
+ * magic      'B' 'R' 'C' 0x01
+ * scalars    wage (8-byte double), age (signed), inflation (8-byte double),
+ *            taxRegime, userId (length + 1, 0 for null, then UTF-8)
+ * q, p, k    count, then per period: fixed or extra (signed, not for k),
+ *            start minus the previous period's start (signed), end minus start (signed)
+ * rows       count, flags (bit 0: some rows have no date, followed by a bitmap of them),
+ *            then whole columns: timestamp deltas from the previous dated row (signed),
+ *            amounts (signed), ceiling - amount (signed), remanent - (ceiling - amount) (signed)
+ * </pre>
+ *
+ * Transactions a minute to a day apart cost 2-3 bytes of timestamp, and a well-formed
+ * ceiling and remanent one byte each.
+ */
+public final class TransactionFrameCodec {
+
+    private static final byte[] MAGIC = {'B', 'R', 'C', 1};
+    private static final int MISSING_DATES = 1;
+
+    private TransactionFrameCodec() {
+    }
+
+    public static TransactionFrame decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /** Decodes the frame between the buffer's position and limit, e.g. a memory-mapped file. */
+    public static TransactionFrame decode(ByteBuffer bytes) {
+        Reader in = new Reader(bytes.slice());
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) throw new IllegalArgumentException("Not a transaction frame (bad magic or version)");
+        }
+        TransactionFrame frame = new TransactionFrame();
+        frame.setWage(in.readDouble());
+        frame.setAge(Math.toIntExact(in.readSigned()));
+        frame.setInflation(in.readDouble());
+        frame.setTaxRegime(in.readString());
+        frame.setUserId(in.readString());
+
+        int qCount = in.readCount(3);
+        List<QPeriod> q = new ArrayList<>(qCount);
+        long start = 0;
+        for (int i = 0; i < qCount; i++) {
+            double fixed = Money.toRupees(in.readSigned());
+            start += in.readSigned();
+            q.add(new QPeriod(fixed, date(start), date(start + in.readSigned())));
+        }
+        int pCount = in.readCount(3);
+        List<PPeriod> p = new ArrayList<>(pCount);
+        start = 0;
+        for (int i = 0; i < pCount; i++) {
+            double extra = Money.toRupees(in.readSigned());
+            start += in.readSigned();
+            p.add(new PPeriod(extra, date(start), date(start + in.readSigned())));
+        }
+        int kCount = in.readCount(2);
+        List<KPeriod> k = new ArrayList<>(kCount);
+        start = 0;
+        for (int i = 0; i < kCount; i++) {
+            start += in.readSigned();
+            k.add(new KPeriod(date(start), date(start + in.readSigned())));
+        }
+        frame.setQ(q);
+        frame.setP(p);
+        frame.setK(k);
+        frame.setTransactions(readRows(in));
+        if (in.remaining() != 0) throw new IllegalArgumentException("Trailing bytes after transaction frame");
+        return frame;
+    }
+
+    public static byte[] encode(TransactionFrame frame) {
+        Writer out = new Writer();
+        out.writeBytes(MAGIC);
+        out.writeDouble(frame.getWage());
+        out.writeSigned(frame.getAge());
+        out.writeDouble(frame.getInflation());
+        out.writeString(frame.getTaxRegime());
+        out.writeString(frame.getUserId());
+
+        List<QPeriod> q = frame.getQ() == null ? List.of() : frame.getQ();
+        out.writeUnsigned(q.size());
+        long previous = 0;
+        for (QPeriod period : q) {
+            long start = epochSecond(period.getStart());
+            out.writeSigned(Money.toMinor(period.getFixed()));
+            out.writeSigned(start - previous);
+            out.writeSigned(epochSecond(period.getEnd()) - start);
+            previous = start;
+        }
+        List<PPeriod> p = frame.getP() == null ? List.of() : frame.getP();
+        out.writeUnsigned(p.size());
+        previous = 0;
+        for (PPeriod period : p) {
+            long start = epochSecond(period.getStart());
+            out.writeSigned(Money.toMinor(period.getExtra()));
+            out.writeSigned(start - previous);
+            out.writeSigned(epochSecond(period.getEnd()) - start);
+            previous = start;
+        }
+        List<KPeriod> k = frame.getK() == null ? List.of() : frame.getK();
+        out.writeUnsigned(k.size());
+        previous = 0;
+        for (KPeriod period : k) {
+            long start = epochSecond(period.getStart());
+            out.writeSigned(start - previous);
+            out.writeSigned(epochSecond(period.getEnd()) - start);
+            previous = start;
+        }
+        writeRows(out, frame.getTransactions() == null ? new TransactionBatch() : frame.getTransactions());
+        return out.toByteArray();
+    }
+
+    private static TransactionBatch readRows(Reader in) {
+        int size = in.readCount(3);
+        int flags = in.readByte();
+        byte[] missing = (flags & MISSING_DATES) != 0 ? in.readBytes((size + 7) / 8) : null;
+
+        long[] timestamps = new long[size];
+        long previous = 0;
+        for (int row = 0; row < size; row++) {
+            if (missing != null && (missing[row >> 3] & (1 << (row & 7))) != 0) {
+                timestamps[row] = TransactionBatch.NO_DATE;
+            } else {
+                previous += in.readSigned();
+                timestamps[row] = previous;
+            }
+        }
+        long[] amounts = new long[size];
+        for (int row = 0; row < size; row++) amounts[row] = in.readSigned();
+        long[] ceilings = new long[size];
+        for (int row = 0; row < size; row++) ceilings[row] = amounts[row] + in.readSigned();
+        long[] remanents = new long[size];
+        for (int row = 0; row < size; row++) remanents[row] = ceilings[row] - amounts[row] + in.readSigned();
+        return TransactionBatch.wrap(timestamps, amounts, ceilings, remanents, size);
+    }
+
+    private static void writeRows(Writer out, TransactionBatch rows) {
+        int size = rows.size();
+        out.writeUnsigned(size);
+        byte[] missing = new byte[(size + 7) / 8];
+        boolean anyMissing = false;
+        for (int row = 0; row < size; row++) {
+            if (rows.timestamp(row) == TransactionBatch.NO_DATE) {
+                missing[row >> 3] |= (byte) (1 << (row & 7));
+                anyMissing = true;
+            }
+        }
+        out.writeByte(anyMissing ? MISSING_DATES : 0);
+        if (anyMissing) out.writeBytes(missing);
+
+        long previous = 0;
+        for (int row = 0; row < size; row++) {
+            long timestamp = rows.timestamp(row);
+            if (timestamp == TransactionBatch.NO_DATE) continue;
+            out.writeSigned(timestamp - previous);
+            previous = timestamp;
+        }
+        for (int row = 0; row < size; row++) out.writeSigned(rows.amount(row));
+        for (int row = 0; row < size; row++) out.writeSigned(rows.ceiling(row) - rows.amount(row));
+        for (int row = 0; row < size; row++) {
+            out.writeSigned(rows.remanent(row) - (rows.ceiling(row) - rows.amount(row)));
+        }
+    }
+
+    private static long epochSecond(LocalDateTime date) {
+        if (date == null) throw new IllegalArgumentException("Periods need a start and an end");
+        return PeriodIndex.toEpochSecond(date);
+    }
+
+    private static LocalDateTime date(long epochSecond) {
+        return TransactionBatch.toDate(epochSecond);
+    }
+
+    private static final class Reader {
+        private final ByteBuffer bytes;
+
+        Reader(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        int remaining() {
+            return bytes.remaining();
+        }
+
+        int readByte() {
+            if (!bytes.hasRemaining()) throw truncated();
+            return bytes.get() & 0xFF;
+        }
+
+        byte[] readBytes(int length) {
+            if (length > remaining()) throw truncated();
+            byte[] result = new byte[length];
+            bytes.get(result);
+            return result;
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint in transaction frame");
+        }
+
+        long readSigned() {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /** A count of items taking at least {@code minBytes} each, checked against what is left. */
+        int readCount(int minBytes) {
+            long count = readUnsigned();
+            if (count > remaining() / minBytes) throw truncated();
+            return (int) count;
+        }
+
+        double readDouble() {
+            if (remaining() < Double.BYTES) throw truncated();
+            return bytes.getDouble(); // big-endian, as written
+        }
+
+        String readString() {
+            long length = readUnsigned();
+            if (length == 0) return null;
+            return new String(readBytes(Math.toIntExact(length - 1)), StandardCharsets.UTF_8);
+        }
+
+        private static IllegalArgumentException truncated() {
+            return new IllegalArgumentException("Truncated transaction frame");
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        void writeByte(int b) {
+            if (size == buffer.length) buffer = Arrays.copyOf(buffer, size * 2);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            for (byte b : bytes) writeByte(b);
+        }
+
+        void writeUnsigned(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned(value << 1 ^ value >> 63);
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) writeByte((int) (bits >>> shift));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.response.TransactionResponse;
+
+import java.util.List;
+
+/**
+ * Running amount/ceiling/remanent totals, accumulated one transaction at a time in paise
+ * so the sums are exact however many rows go in.
+ */
+public final class TransactionTotals {
+
+    private long count;
+    private long amount;
+    private long ceiling;
+    private long remanent;
+
+    /** Totals of a whole batch, summed column by column. */
+    public static TransactionTotals of(TransactionBatch batch) {
+        TransactionTotals totals = new TransactionTotals();
+        long[] amounts = batch.amountColumn();
+        long[] ceilings = batch.ceilingColumn();
+        long[] remanents = batch.remanentColumn();
+        for (int row = 0; row < batch.size(); row++) {
+            totals.amount += amounts[row];
+            totals.ceiling += ceilings[row];
+            totals.remanent += remanents[row];
+        }
+        totals.count = batch.size();
+        return totals;
+    }
+
+    /** Totals already summed elsewhere, e.g. by the database. */
+    public static TransactionTotals of(long count, long amount, long ceiling, long remanent) {
+        TransactionTotals totals = new TransactionTotals();
+        totals.count = count;
+        totals.amount = amount;
+        totals.ceiling = ceiling;
+        totals.remanent = remanent;
+        return totals;
+    }
+
+    public void add(long amount, long ceiling, long remanent) {
+        this.count++;
+        this.amount += amount;
+        this.ceiling += ceiling;
+        this.remanent += remanent;
+    }
+
+    public void add(Transaction txn) {
+        add(Money.toMinor(txn.getAmount()), Money.toMinor(txn.getCeiling()), Money.toMinor(txn.getRemanent()));
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Total amount in paise. */
+    public long amount() {
+        return amount;
+    }
+
+    /** Total ceiling in paise. */
+    public long ceiling() {
+        return ceiling;
+    }
+
+    /** Total remanent in paise. */
+    public long remanent() {
+        return remanent;
+    }
+
+    public TransactionResponse toResponse(List<Transaction> transactions) {
+        return TransactionResponse.builder()
+                .transactions(transactions)
+                .totalAmount(Money.toRupees(amount))
+                .totalCeiling(Money.toRupees(ceiling))
+                .totalRemanent(Money.toRupees(remanent))
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.hackathon.blackrock.utility;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.BeanProperty;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ext.javatime.deser.LocalDateTimeDeserializer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reads {@link LocalDateTime} properties formatted as {@link WireDates#PATTERN} straight from
+ * the parser's character buffer, without building a String or running the formatter. Other
+ * properties, and text outside the plain form, go to Jackson's own deserializer, so
+ * lenient resolution and error messages are unchanged.
+ */
+public final class WireDateDeserializer extends ValueDeserializer<LocalDateTime> {
+
+    private final ValueDeserializer<?> standard;
+    private final boolean wireFormat;
+
+    public WireDateDeserializer() {
+        this(LocalDateTimeDeserializer.INSTANCE, false);
+    }
+
+    private WireDateDeserializer(ValueDeserializer<?> standard, boolean wireFormat) {
+        this.standard = standard;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public ValueDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        ValueDeserializer<?> standard = LocalDateTimeDeserializer.INSTANCE.createContextual(ctxt, property);
+        if (property == null) return standard;
+        JsonFormat.Value format = property.findPropertyFormat(ctxt.getConfig(), LocalDateTime.class);
+        return WireDates.PATTERN.equals(format.getPattern()) ? new WireDateDeserializer(standard, true) : standard;
+    }
+
+    @Override
+    public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) {
+        if (wireFormat && p.hasToken(JsonToken.VALUE_STRING)) {
+            LocalDateTime date = WireDates.parse(p.getStringCharacters(), p.getStringOffset(), p.getStringLength());
+            if (date != null) return date;
+        }
+        return (LocalDateTime) standard.deserialize(p, ctxt);
+    }
+
+    @Override
+    public Class<?> handledType() {
+        return LocalDateTime.class;
+    }
+}
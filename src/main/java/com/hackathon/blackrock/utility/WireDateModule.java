@@ -0,0 +1,15 @@
+package com.hackathon.blackrock.utility;
+
+import tools.jackson.databind.module.SimpleModule;
+
+import java.time.LocalDateTime;
+
+/** Registers the {@link WireDates} fast path for {@link LocalDateTime} with a mapper. */
+public class WireDateModule extends SimpleModule {
+
+    public WireDateModule() {
+        super("blackrock-wire-dates");
+        addSerializer(LocalDateTime.class, new WireDateSerializer());
+        addDeserializer(LocalDateTime.class, new WireDateDeserializer());
+    }
+}
@@ -0,0 +1,68 @@
+package com.hackathon.blackrock.utility;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.BeanProperty;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.ext.javatime.ser.LocalDateTimeSerializer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes {@link LocalDateTime} properties formatted as {@link WireDates#PATTERN} digit by
+ * digit instead of through the formatter. Other properties get Jackson's own serializer.
+ */
+public final class WireDateSerializer extends ValueSerializer<LocalDateTime> {
+
+    // attribute key of the per-call date buffer
+    private static final Object BUFFER = new Object();
+
+    private final boolean wireFormat;
+
+    public WireDateSerializer() {
+        this(false);
+    }
+
+    private WireDateSerializer(boolean wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public ValueSerializer<?> createContextual(SerializationContext ctxt, BeanProperty property) {
+        if (property != null) {
+            JsonFormat.Value format = property.findPropertyFormat(ctxt.getConfig(), LocalDateTime.class);
+            if (WireDates.PATTERN.equals(format.getPattern())) return new WireDateSerializer(true);
+        }
+        return LocalDateTimeSerializer.INSTANCE.createContextual(ctxt, property);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator gen, SerializationContext ctxt) {
+        if (!wireFormat) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, gen, ctxt);
+            return;
+        }
+        char[] text = buffer(ctxt);
+        if (WireDates.format(value, text, 0)) {
+            gen.writeString(text, 0, text.length);
+        } else {
+            gen.writeString(WireDates.FORMATTER.format(value));
+        }
+    }
+
+    /** One buffer per serialization call, shared by every date it writes; the generator copies it. */
+    private static char[] buffer(SerializationContext ctxt) {
+        char[] text = (char[]) ctxt.getAttribute(BUFFER);
+        if (text == null) {
+            text = new char[WireDates.LENGTH];
+            ctxt.setAttribute(BUFFER, text);
+        }
+        return text;
+    }
+
+    @Override
+    public Class<?> handledType() {
+        return LocalDateTime.class;
+    }
+}
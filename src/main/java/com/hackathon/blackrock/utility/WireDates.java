@@ -0,0 +1,151 @@
+package com.hackathon.blackrock.utility;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Codec for the API's fixed {@code yyyy-MM-dd HH:mm:ss} timestamps, working on character
+ * buffers by digit position instead of interpreting the pattern. Anything outside the
+ * plain form (other lengths, separators or signs, out-of-range fields, years past 9999)
+ * is reported as not parsed, so callers can fall back to {@link #FORMATTER} and keep its
+ * exact behavior and error messages.
+ */
+public final class WireDates {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    public static final int LENGTH = PATTERN.length();
+
+    /** Returned by {@link #epochSecond} for text that is not in the plain form. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private WireDates() {
+    }
+
+    /** Parses {@code length} chars at {@code offset}, or returns null when not in the plain form. */
+    public static LocalDateTime parse(char[] text, int offset, int length) {
+        long fields = fields(text, offset, length);
+        if (fields < 0) return null;
+        return LocalDateTime.of(year(fields), month(fields), day(fields),
+                hour(fields), minute(fields), second(fields));
+    }
+
+    /** UTC epoch second of the timestamp at {@code offset}, or {@link #INVALID}. */
+    public static long epochSecond(char[] text, int offset, int length) {
+        long fields = fields(text, offset, length);
+        if (fields < 0) return INVALID;
+        return epochDay(year(fields), month(fields), day(fields)) * SECONDS_PER_DAY
+                + hour(fields) * 3600L + minute(fields) * 60L + second(fields);
+    }
+
+    /**
+     * Writes {@code date} as {@link #LENGTH} chars at {@code offset} and returns true, or
+     * returns false without writing when its year needs more than four digits.
+     */
+    public static boolean format(LocalDateTime date, char[] out, int offset) {
+        return write(out, offset, date.getYear(), date.getMonthValue(), date.getDayOfMonth(),
+                date.getHour(), date.getMinute(), date.getSecond());
+    }
+
+    /** {@link #format(LocalDateTime, char[], int)} for a UTC epoch second, with no date object in between. */
+    public static boolean format(long epochSecond, char[] out, int offset) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        // inverse of epochDay below: years counted from March so the leap day comes last
+        long shifted = epochDay + 719_468;
+        long era = Math.floorDiv(shifted, 146_097);
+        int dayOfEra = (int) (shifted - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        long year = era * 400 + yearOfEra + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) return false;
+        return write(out, offset, (int) year, month, day,
+                secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60);
+    }
+
+    private static boolean write(char[] out, int offset, int year, int month, int day,
+                                 int hour, int minute, int second) {
+        if (year < 0 || year > 9999) return false;
+        digits4(out, offset, year);
+        out[offset + 4] = '-';
+        digits2(out, offset + 5, month);
+        out[offset + 7] = '-';
+        digits2(out, offset + 8, day);
+        out[offset + 10] = ' ';
+        digits2(out, offset + 11, hour);
+        out[offset + 13] = ':';
+        digits2(out, offset + 14, minute);
+        out[offset + 16] = ':';
+        digits2(out, offset + 17, second);
+        return true;
+    }
+
+    // the six fields packed into one long (year in the top bits, seconds in the lowest 6), or -1
+    private static long fields(char[] text, int offset, int length) {
+        if (length != LENGTH
+                || text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != ' '
+                || text[offset + 13] != ':' || text[offset + 16] != ':') {
+            return -1;
+        }
+        int year = number(text, offset, 4);
+        int month = number(text, offset + 5, 2);
+        int day = number(text, offset + 8, 2);
+        int hour = number(text, offset + 11, 2);
+        int minute = number(text, offset + 14, 2);
+        int second = number(text, offset + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0
+                || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return -1;
+        }
+        return (long) year << 26 | (long) month << 22 | day << 17 | hour << 12 | minute << 6 | second;
+    }
+
+    private static int year(long fields)   { return (int) (fields >>> 26); }
+    private static int month(long fields)  { return (int) (fields >>> 22) & 0xF; }
+    private static int day(long fields)    { return (int) (fields >>> 17) & 0x1F; }
+    private static int hour(long fields)   { return (int) (fields >>> 12) & 0x1F; }
+    private static int minute(long fields) { return (int) (fields >>> 6) & 0x3F; }
+    private static int second(long fields) { return (int) fields & 0x3F; }
+
+    /** Decimal value of {@code digits} chars, or -1 if any is not an ASCII digit. */
+    private static int number(char[] text, int offset, int digits) {
+        int value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    // days from 1970-01-01 in the proleptic Gregorian calendar, as LocalDate.toEpochDay
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    private static void digits4(char[] out, int offset, int value) {
+        digits2(out, offset, value / 100);
+        digits2(out, offset + 2, value % 100);
+    }
+
+    private static void digits2(char[] out, int offset, int value) {
+        out[offset] = (char) ('0' + value / 10);
+        out[offset + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,43 @@
+package com.hackathon.blackrock.utility;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/** Response encodings the Jackson-backed endpoints can produce. */
+public enum WireFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile")),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /** The first format the Accept header lists, JSON when it lists none or is absent. */
+    public static WireFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return JSON;
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()); // stable: ties keep their order
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            for (WireFormat format : values()) {
+                if (type.includes(format.mediaType)) return format;
+            }
+        }
+        return JSON;
+    }
+}
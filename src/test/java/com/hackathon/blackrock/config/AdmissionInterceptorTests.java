@@ -0,0 +1,44 @@
+package com.hackathon.blackrock.config;
+
+import com.hackathon.blackrock.utility.AdmissionControl;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionInterceptorTests {
+
+    private final AdmissionControl control = new AdmissionControl(4, 64 * 1024, 0);
+    private final AdmissionInterceptor interceptor = new AdmissionInterceptor(control, 1024, 1);
+
+    @Test
+    void chunkedJsonIsChargedTheWholeBudget() throws Exception {
+        MockHttpServletRequest chunked = post("application/json");
+        assertTrue(interceptor.preHandle(chunked, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse turnedAway = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(post("application/x-ndjson"), turnedAway, null));
+        assertEquals(503, turnedAway.getStatus());
+
+        interceptor.afterCompletion(chunked, new MockHttpServletResponse(), null, null);
+        assertTrue(interceptor.preHandle(post("application/x-ndjson"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void chunkedNdjsonStreamsShareTheBudget() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(interceptor.preHandle(post("application/x-ndjson"), new MockHttpServletResponse(), null));
+        }
+    }
+
+    private static MockHttpServletRequest post(String contentType) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/blackrock/challenge/v1/returns:nps");
+        request.setContentType(contentType);
+        request.addHeader(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        return request;
+    }
+}
@@ -0,0 +1,172 @@
+package com.hackathon.blackrock.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionControllerTests {
+
+    private static final String BASE = "/blackrock/challenge/v1";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String EXPENSE_LINES = """
+            {"date": "2023-10-12 20:15:30", "amount": 250}
+            {"date": "2023-02-28 15:49:20", "amount": 375}
+            """;
+    private static final String TRANSACTIONS = """
+            {"wage": 50000, "transactions": [
+              {"date": "2023-10-12 20:15:30", "amount": 250, "ceiling": 300, "remanent": 50},
+              {"date": "2023-10-12 20:15:30", "amount": 250, "ceiling": 300, "remanent": 50},
+              {"date": "2023-02-28 15:49:20", "amount": -375, "ceiling": 400, "remanent": 25}
+            ]}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/transactions:validator", "/transactions:filter"})
+    void conflictingViewsAreRejected(String endpoint) throws Exception {
+        String[][] conflicts = {
+                {"stream", "true", "view", "summary"},
+                {"stream", "true", "limit", "1"},
+                {"view", "summary", "limit", "1"},
+        };
+        for (String[] params : conflicts) {
+            mockMvc.perform(post(BASE + endpoint).contentType(MediaType.APPLICATION_JSON).content(TRANSACTIONS)
+                            .param(params[0], params[1]).param(params[2], params[3]))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(post(BASE + endpoint).contentType(MediaType.APPLICATION_JSON).content(TRANSACTIONS)
+                        .param("stream", "true").param("view", "summary").param("limit", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/transactions:validator, application/json",
+            "/transactions:validator, application/cbor",
+            "/transactions:filter, application/json",
+            "/transactions:filter, application/x-jackson-smile",
+    })
+    void streamedBodyMatchesTheResponseDto(String endpoint, String accept) throws Exception {
+        String body = """
+                {"wage": 50000,
+                 "q": [{"fixed": 0, "start": "2023-07-01 00:00:00", "end": "2023-07-31 23:59:59"}],
+                 "p": [{"extra": 25, "start": "2023-10-01 08:00:00", "end": "2023-12-31 19:59:59"}],
+                 "k": [{"start": "2023-01-01 00:00:00", "end": "2023-12-31 23:59:59"}],
+                 "transactions": [
+                  {"date": "2023-10-12 20:15:30", "amount": 250, "ceiling": 300, "remanent": 50},
+                  {"date": "2023-10-12 20:15:30", "amount": 250, "ceiling": 300, "remanent": 50},
+                  {"date": "2023-02-28 15:49:20", "amount": -375, "ceiling": 400, "remanent": 25},
+                  {"date": "2023-07-15 10:00:00", "amount": 620.5, "ceiling": 700, "remanent": 79.5, "inKPeriod": false},
+                  {"date": "2023-03-01 09:30:00", "amount": 180, "ceiling": 300, "remanent": 120},
+                  {"date": null, "amount": 99.99, "ceiling": 100, "remanent": 0.01},
+                  {"date": "2024-01-05 12:00:00", "amount": 1000, "ceiling": 1000, "remanent": 0, "note": "ignored"}
+                ]}""";
+        byte[] dto = mockMvc.perform(post(BASE + endpoint).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .accept(accept))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] streamed = mockMvc.perform(post(BASE + endpoint).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .accept(accept).param("stream", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(dto, streamed);
+    }
+
+    @Test
+    void fractionsOfAPaisaAreNotRoundedIntoValidity() throws Exception {
+        // ₹250.004 leaves ₹49.996, not the ₹50 given: off by more than the ₹0.001 the validator allows
+        mockMvc.perform(post(BASE + "/transactions:validator").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"wage": 50000, "transactions": [
+                          {"date": "2023-10-12 20:15:30", "amount": 250.004, "ceiling": 300, "remanent": 50},
+                          {"date": "2023-10-12 20:15:31", "amount": 250.0, "ceiling": 300, "remanent": 50}
+                        ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid.length()").value(1))
+                .andExpect(jsonPath("$.invalid[0].message").value("Ceiling is not valid"));
+    }
+
+    @Test
+    void parseEchoesTheAmountInPaise() throws Exception {
+        mockMvc.perform(post(BASE + "/transactions:parse").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"date": "2023-10-12 20:15:30", "amount": 1519.999}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].amount").value(1520.0))
+                .andExpect(jsonPath("$.transactions[0].remanent").value(80.0));
+    }
+
+    @Test
+    void parseStreamWritesEachTransactionThenTheTotals() throws Exception {
+        String[] lines = mockMvc.perform(post(BASE + "/transactions:parse").contentType(NDJSON).content(EXPENSE_LINES))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals(3, lines.length);
+        assertEquals(50.0, JsonPath.<Double>read(lines[0], "$.remanent"));
+        assertEquals(400.0, JsonPath.<Double>read(lines[1], "$.ceiling"));
+        assertEquals(625.0, JsonPath.<Double>read(lines[2], "$.totalAmount"));
+        assertEquals(75.0, JsonPath.<Double>read(lines[2], "$.totalRemanent"));
+    }
+
+    @Test
+    void totalsOnlyParseReturnsJustTheTotals() throws Exception {
+        mockMvc.perform(post(BASE + "/transactions:parse").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"date": "2023-10-12 20:15:30", "amount": 250},
+                         {"date": "2023-02-28 15:49:20", "amount": 375}]""")
+                        .param("totalsOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions").doesNotExist())
+                .andExpect(jsonPath("$.totalAmount").value(625.0))
+                .andExpect(jsonPath("$.totalCeiling").value(700.0))
+                .andExpect(jsonPath("$.totalRemanent").value(75.0));
+
+        String[] lines = mockMvc.perform(post(BASE + "/transactions:parse").contentType(NDJSON).content(EXPENSE_LINES)
+                        .param("totalsOnly", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(1, lines.length);
+        assertEquals(700.0, JsonPath.<Double>read(lines[0], "$.totalCeiling"));
+    }
+
+    @Test
+    void malformedTotalsOnlyParseIsRejected() throws Exception {
+        mockMvc.perform(post(BASE + "/transactions:parse").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"date\": \"2023-10-12 20:15:30\", \"amount\": ")
+                        .param("totalsOnly", "true"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/transactions:validator", "/transactions:filter"})
+    void eachViewAloneIsServed(String endpoint) throws Exception {
+        mockMvc.perform(post(BASE + endpoint).contentType(MediaType.APPLICATION_JSON).content(TRANSACTIONS)
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.validCount").value(1))
+                .andExpect(jsonPath("$.invalidCount").value(2));
+        mockMvc.perform(post(BASE + endpoint).contentType(MediaType.APPLICATION_JSON).content(TRANSACTIONS)
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next").isNotEmpty());
+        mockMvc.perform(post(BASE + endpoint).contentType(MediaType.APPLICATION_JSON).content(TRANSACTIONS)
+                        .param("stream", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid.length()").value(1));
+    }
+}
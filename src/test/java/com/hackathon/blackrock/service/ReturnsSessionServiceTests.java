@@ -0,0 +1,66 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.SessionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "blackrock.sessions.max=3")
+class ReturnsSessionServiceTests {
+
+    @Autowired
+    private ReturnsSessionService sessionService;
+
+    @Test
+    void concurrentCreatesStayWithinTheCap() throws Exception {
+        ReturnsRequest request = new ReturnsRequest();
+        request.setAge(29);
+        request.setWage(50_000);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<String> created = new ArrayList<>();
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<SessionResponse>> creates = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                creates.add(pool.submit(() -> {
+                    start.await();
+                    return sessionService.create(request);
+                }));
+            }
+            start.countDown();
+            for (Future<SessionResponse> create : creates) {
+                try {
+                    created.add(create.get().getSessionId());
+                } catch (ExecutionException e) {
+                    ResponseStatusException rejected = assertInstanceOf(ResponseStatusException.class, e.getCause());
+                    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+                }
+            }
+            assertEquals(3, created.size());
+
+            // closing one frees its slot for exactly one more
+            sessionService.close(created.remove(0));
+            created.add(sessionService.create(request).getSessionId());
+            assertThrows(ResponseStatusException.class, () -> sessionService.create(request));
+        } finally {
+            pool.shutdown();
+            created.forEach(sessionService::close);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.hackathon.blackrock.service;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.Transaction;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import com.hackathon.blackrock.model.request.response.StoredUserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class TransactionStoreServiceTests {
+
+    @Autowired
+    private TransactionStoreService storeService;
+
+    @Autowired
+    private ReturnsCalculationService returnsService;
+
+    @Test
+    void storedReturnsMatchOneShotReturns() {
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            double amount = i % 29 == 0 ? -10 : 100 + (i * 37) % 900;
+            double ceiling = Math.ceil(amount / 100) * 100;
+            // every 50th row repeats an earlier date and must be dropped
+            LocalDateTime date = base.plusHours(i % 50 == 49 ? i - 1 : i);
+            transactions.add(new Transaction(date, amount, ceiling, ceiling - amount, null));
+        }
+
+        ReturnsRequest request = new ReturnsRequest();
+        request.setAge(29);
+        request.setWage(150_000);
+        request.setInflation(0.055);
+        request.setQ(List.of(new QPeriod(0, base.plusHours(10), base.plusHours(40))));
+        request.setP(List.of(new PPeriod(25, base.plusHours(30), base.plusHours(200))));
+        request.setK(List.of(new KPeriod(base, base.plusHours(299)), new KPeriod(base.plusHours(100), base.plusHours(150))));
+        request.setTransactions(transactions);
+
+        ReturnsRequest profile = new ReturnsRequest();
+        profile.setAge(request.getAge());
+        profile.setWage(request.getWage());
+        profile.setInflation(request.getInflation());
+        profile.setQ(request.getQ());
+        profile.setP(request.getP());
+        profile.setK(request.getK());
+        // transactions first, then periods, so stored rows get re-enriched
+        ReturnsRequest bare = new ReturnsRequest();
+        bare.setAge(request.getAge());
+        bare.setWage(request.getWage());
+        bare.setInflation(request.getInflation());
+        storeService.saveProfile("store-test", bare);
+        storeService.append("store-test", transactions.subList(0, 120));
+        storeService.saveProfile("store-test", profile);
+        storeService.append("store-test", transactions.subList(120, 300));
+        storeService.append("store-test", transactions.subList(100, 200));
+
+        assertEquals(returnsService.calculate(request, true), storeService.returns("store-test", true));
+        assertEquals(returnsService.calculate(request, false), storeService.returns("store-test", false));
+    }
+
+    @Test
+    void appendingForAnUnknownUserIsNotFound() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> storeService.append("no-such-user",
+                List.of(new Transaction(LocalDateTime.of(2023, 1, 1, 0, 0), 250, 300, 50, null))));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    @Test
+    void undatedRowsAreNotStored() {
+        ReturnsRequest profile = new ReturnsRequest();
+        profile.setAge(29);
+        profile.setWage(50_000);
+        storeService.saveProfile("undated-test", profile);
+
+        StoredUserResponse stored = storeService.append("undated-test", List.of(
+                new Transaction(null, 250, 300, 50, null),
+                new Transaction(LocalDateTime.of(2023, 1, 1, 0, 0), 375, 400, 25, null)));
+        assertEquals(1, stored.getAccepted());
+        assertEquals(0, storeService.append("undated-test",
+                List.of(new Transaction(null, 250, 300, 50, null))).getAccepted());
+        assertEquals(375.0, storeService.returns("undated-test", true).getTotalTransactionAmount());
+    }
+
+    @Test
+    void concurrentFirstSavesOfOneUserAllSucceed() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        ReturnsRequest profile = new ReturnsRequest();
+        profile.setAge(29);
+        profile.setWage(50_000);
+        profile.setK(List.of(new KPeriod(base, base.plusDays(30)), new KPeriod(base, base.plusDays(60))));
+        profile.setTransactions(List.of(new Transaction(base.plusDays(1), 250, 300, 50, null)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<StoredUserResponse>> saves = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                saves.add(pool.submit(() -> storeService.saveProfile("first-save-test", profile)));
+            }
+            for (Future<StoredUserResponse> save : saves) {
+                assertEquals(1, save.get().getTransactionCount());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2, storeService.returns("first-save-test", true).getSavingsByDates().size());
+    }
+
+    @Test
+    void concurrentAppendsOfTheSameDatesStoreThemOnce() throws Exception {
+        ReturnsRequest profile = new ReturnsRequest();
+        profile.setAge(29);
+        profile.setWage(50_000);
+        storeService.saveProfile("race-test", profile);
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            transactions.add(new Transaction(base.plusMinutes(i), 250, 300, 50, null));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<StoredUserResponse>> appends = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                appends.add(pool.submit(() -> storeService.append("race-test", transactions)));
+            }
+            int accepted = 0;
+            for (Future<StoredUserResponse> append : appends) {
+                accepted += append.get().getAccepted();
+            }
+            assertEquals(transactions.size(), accepted);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.hackathon.blackrock.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionControlTests {
+
+    @Test
+    void turnsAwayBySlotsThenByBytes() throws InterruptedException {
+        AdmissionControl control = new AdmissionControl(2, 4 * 1024, 0);
+
+        assertEquals(AdmissionControl.Outcome.ADMITTED, control.acquire(3 * 1024));
+        assertEquals(AdmissionControl.Outcome.OVERLOADED, control.acquire(2 * 1024));
+        assertEquals(AdmissionControl.Outcome.ADMITTED, control.acquire(100));
+        assertEquals(AdmissionControl.Outcome.TOO_MANY_REQUESTS, control.acquire(1));
+
+        control.release(3 * 1024);
+        control.release(100);
+        // larger than the whole budget: charged the whole budget and runs alone
+        assertEquals(AdmissionControl.Outcome.ADMITTED, control.acquire(1L << 30));
+        assertEquals(AdmissionControl.Outcome.OVERLOADED, control.acquire(1));
+        control.release(1L << 30);
+        assertEquals(AdmissionControl.Outcome.ADMITTED, control.acquire(Long.MAX_VALUE));
+        assertEquals(AdmissionControl.Outcome.OVERLOADED, control.acquire(1));
+        control.release(Long.MAX_VALUE);
+        assertEquals(2, control.availableSlots());
+    }
+}
@@ -0,0 +1,72 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.TransactionBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateDetectorTests {
+
+    @Test
+    void matchesHashSetForDenseAndSparseTimestamps() {
+        Random random = new Random(11);
+        for (long spread : new long[]{50, 1_000_000_000L}) {
+            long[] timestamps = new long[2_000];
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = i % 97 == 0 ? TransactionBatch.NO_DATE
+                        : 1_700_000_000L + (long) (random.nextDouble() * spread) - spread / 2;
+            }
+            DuplicateDetector detector = DuplicateDetector.forTimestamps(timestamps, timestamps.length);
+            Set<Long> expected = new HashSet<>();
+
+            for (long ts : timestamps) {
+                assertEquals(expected.add(ts), detector.firstSeen(ts), "timestamp " + ts);
+            }
+            // values outside the sized range are still tracked
+            assertTrue(detector.firstSeen(0));
+            assertFalse(detector.firstSeen(0));
+        }
+    }
+
+    @Test
+    void partitionedMarkingMatchesSequentialMarking() {
+        Random random = new Random(5);
+        int size = 20_000;
+        long[] timestamps = new long[size];
+        byte[] sequential = new byte[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = i % 101 == 0 ? TransactionBatch.NO_DATE : 1_700_000_000L + random.nextInt(5_000);
+            sequential[i] = (byte) random.nextInt(3); // 0 record, 1 check only, 2 ignored
+        }
+        byte[] parallel = sequential.clone();
+
+        DuplicateDetector.markDuplicates(BatchExecutor.sequential(), timestamps, size,
+                sequential, (byte) 0, (byte) 1, (byte) 3);
+        DuplicateDetector.markDuplicates(new BatchExecutor(new ForkJoinPool(4), 1), timestamps, size,
+                parallel, (byte) 0, (byte) 1, (byte) 3);
+
+        assertArrayEquals(sequential, parallel);
+    }
+
+    @Test
+    void longHashSetGrowsAndKeepsZero() {
+        LongHashSet set = new LongHashSet(1);
+        for (long key = -500; key < 500; key++) {
+            assertTrue(set.add(key * 7));
+        }
+        for (long key = -500; key < 500; key++) {
+            assertTrue(set.contains(key * 7));
+            assertFalse(set.add(key * 7));
+        }
+        assertEquals(1_000, set.size());
+        assertFalse(set.contains(3));
+    }
+}
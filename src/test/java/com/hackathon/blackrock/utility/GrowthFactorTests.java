@@ -0,0 +1,22 @@
+package com.hackathon.blackrock.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GrowthFactorTests {
+
+    @Test
+    void matchesCompoundingThenDiscounting() {
+        double principal = 145.0;
+        for (int frequency : new int[]{1, 4, 12}) {
+            GrowthFactor factor = GrowthFactor.of(0.0711, frequency, 0.055, 31);
+
+            double finalAmount = principal * Math.pow(1 + 0.0711 / frequency, (double) frequency * 31);
+            double realAmount = finalAmount / Math.pow(1.055, 31);
+
+            assertEquals(finalAmount, principal * factor.nominal(), 1e-9);
+            assertEquals(realAmount - finalAmount, factor.profit(principal), 1e-9);
+        }
+    }
+}
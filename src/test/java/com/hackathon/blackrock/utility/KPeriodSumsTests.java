@@ -0,0 +1,49 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KPeriodSumsTests {
+
+    private static final long BASE = 1_672_531_200L; // 2023-01-01
+
+    @Test
+    void runningSumsMatchRangeSumIndex() {
+        Random random = new Random(17);
+        List<KPeriod> kPeriods = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long start = BASE + random.nextInt(100_000);
+            long end = start + random.nextInt(20_000) - 1_000; // a few inverted ranges
+            kPeriods.add(new KPeriod(date(start), date(end)));
+        }
+        KPeriodSums sums = new KPeriodSums(kPeriods);
+
+        int n = 5_000;
+        long[] timestamps = new long[n];
+        long[] values = new long[n];
+        for (int i = 0; i < n; i++) {
+            timestamps[i] = BASE - 5_000 + random.nextInt(130_000);
+            values[i] = random.nextInt(10_000);
+            sums.add(timestamps[i], values[i]);
+        }
+        RangeSumIndex index = RangeSumIndex.of(timestamps, values);
+
+        for (int k = 0; k < kPeriods.size(); k++) {
+            long expected = index.sum(PeriodIndex.toEpochSecond(kPeriods.get(k).getStart()),
+                    PeriodIndex.toEpochSecond(kPeriods.get(k).getEnd()));
+            assertEquals(expected, sums.sum(k), "k period " + k);
+        }
+    }
+
+    private static LocalDateTime date(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
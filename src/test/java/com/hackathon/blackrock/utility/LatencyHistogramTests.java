@@ -0,0 +1,41 @@
+package com.hackathon.blackrock.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        Random random = new Random(23);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // log-uniform between 1µs and 10s
+            values[i] = (long) Math.pow(10, 3 + random.nextDouble() * 7);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long reported = histogram.percentile(q);
+            assertTrue(Math.abs(reported - exact) <= exact / 16 + 1, q + ": " + reported + " vs " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.max());
+        assertEquals(values.length, histogram.count());
+    }
+
+    @Test
+    void bucketsCoverTheWholeRange() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1_000_003, Long.MAX_VALUE}) {
+            long midpoint = LatencyHistogram.midpointOf(LatencyHistogram.indexOf(value));
+            assertTrue(Math.abs(midpoint - value) <= value / 16 + 1, value + " -> " + midpoint);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.hackathon.blackrock.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTests {
+
+    @Test
+    void ceilingRoundsUpToNextHundredRupees() {
+        assertEquals(30_000, Money.ceiling(Money.toMinor(250)));
+        assertEquals(60_000, Money.ceiling(Money.toMinor(600)));
+        assertEquals(40_000, Money.ceiling(Money.toMinor(375.45)));
+        assertEquals(10_000, Money.ceiling(Money.toMinor(0.01)));
+        assertEquals(0, Money.ceiling(0));
+        assertEquals(0, Money.ceiling(Money.toMinor(-50)));
+    }
+
+    @Test
+    void remanentIsExactInPaise() {
+        assertEquals(2_455, Money.remanent(Money.toMinor(375.45)));
+        assertEquals(24.55, Money.toRupees(Money.remanent(Money.toMinor(375.45))));
+        assertEquals(0, Money.remanent(Money.toMinor(-375.45)));
+    }
+
+    @Test
+    void fractionsOfAPaisaAreNotWholeMinor() {
+        assertTrue(Money.isWholeMinor(375.45));
+        assertTrue(Money.isWholeMinor(499_999.99));
+        assertTrue(Money.isWholeMinor(-0.07));
+        assertFalse(Money.isWholeMinor(250.004));
+        assertFalse(Money.isWholeMinor(49.996));
+        assertFalse(Money.isWholeMinor(0.0009));
+    }
+
+    @Test
+    void sumsDoNotDrift() {
+        TransactionTotals totals = new TransactionTotals();
+        for (int i = 0; i < 1_000_000; i++) {
+            totals.add(Money.toMinor(0.1), 0, Money.toMinor(0.01));
+        }
+        assertEquals(100_000.0, Money.toRupees(totals.amount()));
+        assertEquals(10_000.0, Money.toRupees(totals.remanent()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PeriodIndexTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 0, 0, 0);
+
+    @Test
+    void matchesLinearScanOnRandomPeriods() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<QPeriod> q = new ArrayList<>();
+            List<PPeriod> p = new ArrayList<>();
+            for (int i = random.nextInt(8); i > 0; i--) {
+                q.add(new QPeriod(random.nextInt(50), at(random.nextInt(100)), at(random.nextInt(100))));
+            }
+            for (int i = random.nextInt(8); i > 0; i--) {
+                p.add(new PPeriod(random.nextInt(50), at(random.nextInt(100)), at(random.nextInt(100))));
+            }
+            PeriodIndex index = PeriodIndex.of(q, p);
+
+            for (int t = -5; t < 105; t++) {
+                LocalDateTime date = at(t);
+                assertSame(linearQ(date, q), index.findQ(date), "q at " + t);
+                assertEquals(Money.toMinor(linearP(date, p)), index.sumP(date), "p at " + t);
+            }
+        }
+    }
+
+    @Test
+    void sameStartKeepsFirstQPeriod() {
+        QPeriod first = new QPeriod(10, at(0), at(10));
+        QPeriod second = new QPeriod(20, at(0), at(20));
+        PeriodIndex index = PeriodIndex.of(List.of(first, second), null);
+
+        assertSame(first, index.findQ(at(5)));
+        assertSame(second, index.findQ(at(15)));
+        assertEquals(10, index.apply(at(5), 99));
+        assertEquals(99, index.apply(at(25), 99));
+    }
+
+    @Test
+    void kCoverageMatchesAnyMatch() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<KPeriod> k = new ArrayList<>();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                k.add(new KPeriod(at(random.nextInt(100)), at(random.nextInt(100))));
+            }
+            PeriodRuleSet rules = PeriodRuleSet.compile(null, null, k);
+
+            for (int t = -5; t < 105; t++) {
+                LocalDateTime date = at(t);
+                boolean expected = k.isEmpty() || k.stream()
+                        .anyMatch(period -> !date.isBefore(period.getStart()) && !date.isAfter(period.getEnd()));
+                assertEquals(expected, rules.inAnyKPeriod(date), "k at " + t);
+            }
+        }
+    }
+
+    @Test
+    void rangeSumIsInclusiveOnBothEnds() {
+        RangeSumIndex index = RangeSumIndex.of(new long[]{30, 10, 20}, new long[]{3, 1, 2});
+
+        assertEquals(6, index.sum(10, 30));
+        assertEquals(2, index.sum(11, 29));
+        assertEquals(0, index.sum(31, 40));
+        assertEquals(0, index.sum(30, 10));
+    }
+
+    private static LocalDateTime at(int minutes) {
+        return BASE.plusMinutes(minutes);
+    }
+
+    private static QPeriod linearQ(LocalDateTime date, List<QPeriod> qPeriods) {
+        QPeriod best = null;
+        for (QPeriod q : qPeriods) {
+            if (date.isBefore(q.getStart()) || date.isAfter(q.getEnd())) continue;
+            if (best == null || q.getStart().isAfter(best.getStart())) best = q;
+        }
+        return best;
+    }
+
+    private static double linearP(LocalDateTime date, List<PPeriod> pPeriods) {
+        return pPeriods.stream()
+                .filter(p -> !date.isBefore(p.getStart()) && !date.isAfter(p.getEnd()))
+                .mapToDouble(PPeriod::getExtra)
+                .sum();
+    }
+}
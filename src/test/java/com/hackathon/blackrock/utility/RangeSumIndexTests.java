@@ -0,0 +1,51 @@
+package com.hackathon.blackrock.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RangeSumIndexTests {
+
+    private static final long BASE = 1_672_531_200L; // 2023-01-01
+
+    @Test
+    void addingMatchesBuildingAtOnce() {
+        Random random = new Random(23);
+        RangeSumIndex grown = RangeSumIndex.empty();
+        int n = 3_000;
+        long[] timestamps = new long[n];
+        long[] values = new long[n];
+        long ts = BASE;
+        for (int i = 0; i < n; i++) {
+            // mostly in time order, with the occasional late arrival and repeated second
+            ts += random.nextInt(10) == 0 ? -random.nextInt(50_000) : random.nextInt(600);
+            timestamps[i] = ts;
+            values[i] = random.nextInt(10_000);
+            grown.add(timestamps[i], values[i]);
+
+            if (i % 500 == 499) assertSameSums(RangeSumIndex.of(timestamps.clone(), values.clone()), grown, random);
+        }
+        assertEquals(n, grown.size());
+    }
+
+    @Test
+    void emptyAndInvertedRangesSumToZero() {
+        RangeSumIndex index = RangeSumIndex.empty();
+        assertEquals(0, index.sum(BASE, BASE + 100));
+        index.add(BASE + 10, 500);
+        index.add(BASE, 250);
+        assertEquals(750, index.sum(BASE, BASE + 10));
+        assertEquals(250, index.sum(BASE, BASE));
+        assertEquals(0, index.sum(BASE + 10, BASE));
+    }
+
+    private static void assertSameSums(RangeSumIndex expected, RangeSumIndex actual, Random random) {
+        for (int q = 0; q < 200; q++) {
+            long start = BASE - 10_000 + random.nextInt(400_000);
+            long end = start + random.nextInt(100_000);
+            assertEquals(expected.sum(start, end), actual.sum(start, end), "[" + start + ", " + end + "]");
+        }
+    }
+}
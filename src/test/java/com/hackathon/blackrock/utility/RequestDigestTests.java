@@ -0,0 +1,79 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.model.request.FilterRequest;
+import com.hackathon.blackrock.model.request.ReturnsRequest;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RequestDigestTests {
+
+    // absent primitives bind as 0, as in the application's mapper
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+            .build();
+
+    @Test
+    void spellingOfAnEqualRequestDoesNotMatter() {
+        String compact = """
+                {"age":29,"wage":50000,"inflation":0.055,"k":[{"start":"2023-01-01 00:00:00","end":"2023-12-31 23:59:59"}],\
+                "transactions":[{"date":"2023-10-12 20:15:30","amount":250,"ceiling":300,"remanent":50}]}""";
+        String reordered = """
+                {
+                  "transactions": [{"remanent": 50.0, "ceiling": 3e2, "amount": 250.00, "date": "2023-10-12 20:15:30"}],
+                  "k": [{"end": "2023-12-31 23:59:59", "start": "2023-01-01 00:00:00"}],
+                  "inflation": 0.055, "wage": 50000.0, "age": 29
+                }""";
+
+        assertEquals(returnsDigest(compact), returnsDigest(reordered));
+    }
+
+    @Test
+    void anyBoundValueChangesTheDigest() {
+        String base = returnsDigest("""
+                {"age": 29, "wage": 50000, "transactions": [{"date": "2023-10-12 20:15:30", "amount": 250}]}""");
+
+        assertNotEquals(base, returnsDigest("""
+                {"age": 30, "wage": 50000, "transactions": [{"date": "2023-10-12 20:15:30", "amount": 250}]}"""));
+        assertNotEquals(base, returnsDigest("""
+                {"age": 29, "wage": 50000, "transactions": [{"date": "2023-10-12 20:15:31", "amount": 250}]}"""));
+        assertNotEquals(base, returnsDigest("""
+                {"age": 29, "wage": 50000, "transactions": [{"date": "2023-10-12 20:15:30", "amount": 250.01}]}"""));
+        assertNotEquals(base, returnsDigest("""
+                {"age": 29, "wage": 50000, "transactions": [{"date": "2023-10-12 20:15:30", "amount": 250,
+                 "inKPeriod": true}]}"""));
+        assertNotEquals(base, returnsDigest("""
+                {"age": 29, "wage": 50000, "transactions": [{"date": "2023-10-12 20:15:30", "amount": 250}],
+                 "taxRegime": "old"}"""));
+    }
+
+    @Test
+    void periodsAreToldApartByWhereTheyAppear() {
+        // the same two dates moved from q to p, or swapped within k, are different requests
+        String q = filterDigest("""
+                {"wage": 50000, "q": [{"fixed": 0, "start": "2023-07-01 00:00:00", "end": "2023-07-31 23:59:59"}]}""");
+        String p = filterDigest("""
+                {"wage": 50000, "p": [{"extra": 0, "start": "2023-07-01 00:00:00", "end": "2023-07-31 23:59:59"}]}""");
+        String k = filterDigest("""
+                {"wage": 50000, "k": [{"start": "2023-07-01 00:00:00", "end": "2023-07-31 23:59:59"},
+                                      {"start": "2023-01-01 00:00:00", "end": "2023-12-31 23:59:59"}]}""");
+        String swapped = filterDigest("""
+                {"wage": 50000, "k": [{"start": "2023-01-01 00:00:00", "end": "2023-12-31 23:59:59"},
+                                      {"start": "2023-07-01 00:00:00", "end": "2023-07-31 23:59:59"}]}""");
+
+        assertNotEquals(q, p);
+        assertNotEquals(k, swapped);
+    }
+
+    private String returnsDigest(String json) {
+        return RequestDigest.of(mapper.readValue(json, ReturnsRequest.class));
+    }
+
+    private String filterDigest(String json) {
+        return RequestDigest.of(mapper.readValue(json, FilterRequest.class));
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackathon.blackrock.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageTraceTests {
+
+    @Test
+    void recordsStagesInOrderAcrossGrowth() {
+        StageTrace trace = new StageTrace();
+        for (int i = 0; i < 20; i++) {
+            trace.open("stage" + i, i).end(i / 2);
+        }
+        assertEquals(20, trace.size());
+        assertEquals("stage13", trace.name(13));
+        assertEquals(13, trace.rowsIn(13));
+        assertEquals(6, trace.rowsOut(13));
+        assertTrue(trace.nanos(13) >= 0);
+    }
+
+    @Test
+    void pendingStageIsClosedByLaterCallback() {
+        StageTrace trace = new StageTrace();
+        trace.setPending(trace.open("bind", 0));
+        trace.open("parse", 3).end(3);
+        trace.endPending(3);
+        trace.endPending(99); // nothing pending any more
+
+        assertEquals(3, trace.rowsOut(0));
+        assertTrue(trace.toServerTiming().startsWith("bind;dur="));
+        assertTrue(trace.toServerTiming().contains(", parse;dur="));
+        assertTrue(trace.toServerTiming().contains("desc=\"rows 3->3, "));
+    }
+
+    @Test
+    void stagesLeftOpenAreSkipped() {
+        StageTrace trace = new StageTrace();
+        trace.setPending(trace.open("bind", 0)); // binding threw: never ended
+        trace.open("validate", 5); // nor was this stage
+        trace.open("parse", 3).end(3);
+
+        assertFalse(trace.ended(0));
+        assertFalse(trace.ended(1));
+        assertTrue(trace.ended(2));
+        assertTrue(trace.toServerTiming().startsWith("parse;dur="), trace.toServerTiming());
+    }
+
+    @Test
+    void noopSpanIgnoresEnd() {
+        StageTrace.Span.NOOP.end(5);
+    }
+}
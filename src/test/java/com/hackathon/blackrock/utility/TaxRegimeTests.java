@@ -0,0 +1,59 @@
+package com.hackathon.blackrock.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaxRegimeTests {
+
+    // the slab arithmetic TaxCalculator used before regimes were table driven
+    private static double legacyTax(double income) {
+        if (income <= 700_000)   return 0;
+        if (income <= 1_000_000) return (income - 700_000) * 0.10;
+        double tax = 30_000;
+        if (income <= 1_200_000) return tax + (income - 1_000_000) * 0.15;
+        tax += 30_000;
+        if (income <= 1_500_000) return tax + (income - 1_200_000) * 0.20;
+        tax += 60_000;
+        return tax + (income - 1_500_000) * 0.30;
+    }
+
+    @Test
+    void defaultRegimeMatchesLegacySlabs() {
+        Random random = new Random(3);
+        TaxRegime parsed = TaxRegime.parse("fy2025", "0:0, 700000:0.10, 1000000:0.15, 1200000:0.20, 1500000:0.30",
+                0.10, 200_000);
+        for (double income : new double[]{-5, 0, 700_000, 1_000_000, 1_200_000, 1_500_000, 1_500_001}) {
+            assertEquals(legacyTax(income), TaxRegime.DEFAULT.computeTax(income), 1e-9);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            double income = random.nextDouble() * 3_000_000;
+            assertEquals(legacyTax(income), TaxRegime.DEFAULT.computeTax(income), 1e-9);
+            assertEquals(TaxRegime.DEFAULT.computeTax(income), parsed.computeTax(income));
+        }
+    }
+
+    @Test
+    void batchBenefitsMatchSingleBenefits() {
+        TaxRegime.Assessment assessment = TaxRegime.DEFAULT.assess(1_800_000);
+        double[] invested = {0, 50_000, 180_000, 500_000};
+
+        double[] expected = new double[invested.length];
+        for (int i = 0; i < invested.length; i++) {
+            double deduction = Math.min(invested[i], Math.min(1_800_000 * 0.10, 200_000));
+            expected[i] = legacyTax(1_800_000) - legacyTax(1_800_000 - deduction);
+        }
+        assertArrayEquals(expected, assessment.benefits(invested), 1e-9);
+    }
+
+    @Test
+    void rejectsMalformedSlabs() {
+        assertThrows(IllegalArgumentException.class, () -> TaxRegime.parse("x", "0:0,5", 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> TaxRegime.parse("x", "0:0,10:0.1,5:0.2", 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> TaxRegime.parse("x", "100:0.1", 0.1, 1));
+    }
+}
@@ -0,0 +1,105 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.TransactionBatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionFileReaderTests {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsCsvWithHeaderQuotesAndMissingColumns() throws IOException {
+        Path csv = write("rows.csv", """
+                date,amount,ceiling,remanent\r
+                2023-10-12 20:15:30,250,300,50\r
+                "2023-10-12T20:15:31", 1519.999 \r
+                ,-10.5
+                2023-10-12 20:15:33,1e3,1000,0
+                """);
+        TransactionBatch rows = read(csv, 64);
+
+        assertEquals(4, rows.size());
+        assertEquals(TransactionBatch.toEpochSecond(LocalDateTime.of(2023, 10, 12, 20, 15, 30)), rows.timestamp(0));
+        assertArrayEquals(new long[]{25_000, 30_000, 5_000},
+                new long[]{rows.amount(0), rows.ceiling(0), rows.remanent(0)});
+        // no ceiling in the file: the one parse would give, from the amount rounded to paise
+        assertEquals(rows.timestamp(0) + 1, rows.timestamp(1));
+        assertArrayEquals(new long[]{152_000, 160_000, 8_000},
+                new long[]{rows.amount(1), rows.ceiling(1), rows.remanent(1)});
+        assertTrue(rows.inPaise(0));
+        assertFalse(rows.inPaise(1));
+        assertEquals(TransactionBatch.NO_DATE, rows.timestamp(2));
+        assertEquals(-1_050, rows.amount(2));
+        assertEquals(100_000, rows.amount(3));
+    }
+
+    @Test
+    void windowBoundariesDoNotChangeTheRows() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        StringBuilder ndjson = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            String date = "2023-01-01 00:%02d:%02d".formatted(i / 60, i % 60);
+            String amount = i + "." + (i % 100);
+            csv.append(date).append(',').append(amount).append('\n');
+            ndjson.append(i == 0 ? "" : ",\n").append("{\"date\":\"").append(date)
+                    .append("\",\"amount\":").append(amount).append(",\"note\":[1,{}]}");
+        }
+        ndjson.append(']');
+        Path csvFile = write("rows.csv", csv.toString());
+        Path jsonFile = write("rows.json", ndjson.toString());
+
+        TransactionBatch whole = read(csvFile, 1 << 20);
+        assertEquals(500, whole.size());
+        for (int window : new int[]{41, 97, 1_000}) {
+            assertColumnsEqual(whole, read(csvFile, window));
+            assertColumnsEqual(whole, read(jsonFile, window));
+        }
+    }
+
+    @Test
+    void reportsTheLineOfABadRow() throws IOException {
+        Path csv = write("bad.csv", "2023-01-01 00:00:00,1\n2023-01-01 00:00:01,abc\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> read(csv, 64));
+        assertTrue(e.getMessage().startsWith("Line 2"), e.getMessage());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+
+    private static TransactionBatch read(Path path, int window) throws IOException {
+        TransactionBatch rows = new TransactionBatch();
+        try (MappedInput in = MappedInput.open(path, window)) {
+            long count = TransactionFileReader.read(in, TransactionFileReader.Format.of(path), MAPPER, rows::add);
+            assertEquals(rows.size(), count);
+        }
+        return rows;
+    }
+
+    private static void assertColumnsEqual(TransactionBatch expected, TransactionBatch actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.timestamp(row), actual.timestamp(row));
+            assertEquals(expected.amount(row), actual.amount(row));
+            assertEquals(expected.ceiling(row), actual.ceiling(row));
+            assertEquals(expected.remanent(row), actual.remanent(row));
+            assertEquals(expected.inPaise(row), actual.inPaise(row));
+        }
+    }
+}
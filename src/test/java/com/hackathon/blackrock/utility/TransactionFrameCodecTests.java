@@ -0,0 +1,91 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.KPeriod;
+import com.hackathon.blackrock.domain.PPeriod;
+import com.hackathon.blackrock.domain.QPeriod;
+import com.hackathon.blackrock.domain.TransactionBatch;
+import com.hackathon.blackrock.model.request.TransactionFrame;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionFrameCodecTests {
+
+    private static final long BASE = 1_672_531_200L; // 2023-01-01
+
+    @Test
+    void roundTripsEveryField() {
+        Random random = new Random(11);
+        TransactionBatch rows = new TransactionBatch();
+        long ts = BASE;
+        for (int i = 0; i < 5_000; i++) {
+            ts += random.nextInt(7_200) - 600; // mostly forward, sometimes back
+            long amount = random.nextInt(10) == 0 ? -random.nextInt(100_000) : random.nextInt(50_000_000);
+            long ceiling = random.nextInt(20) == 0 ? amount + 7 : Money.ceiling(amount);
+            rows.add(random.nextInt(50) == 0 ? TransactionBatch.NO_DATE : ts, amount, ceiling, ceiling - amount);
+        }
+        TransactionFrame frame = new TransactionFrame();
+        frame.setUserId("user-é");
+        frame.setAge(29);
+        frame.setWage(50_000.5);
+        frame.setInflation(5.5);
+        frame.setQ(List.of(new QPeriod(12.5, date(BASE + 100), date(BASE + 5_000))));
+        frame.setP(List.of(new PPeriod(30, date(BASE + 50), date(BASE + 40)),
+                new PPeriod(0.01, date(BASE - 9_000), date(BASE + 90_000))));
+        frame.setK(List.of(new KPeriod(date(BASE), date(BASE + 86_400 * 365L))));
+        frame.setTransactions(rows);
+
+        TransactionFrame decoded = TransactionFrameCodec.decode(TransactionFrameCodec.encode(frame));
+
+        assertEquals("user-é", decoded.getUserId());
+        assertNull(decoded.getTaxRegime());
+        assertEquals(29, decoded.getAge());
+        assertEquals(50_000.5, decoded.getWage());
+        assertEquals(5.5, decoded.getInflation());
+        assertEquals(frame.getQ(), decoded.getQ());
+        assertEquals(frame.getP(), decoded.getP());
+        assertEquals(frame.getK(), decoded.getK());
+        TransactionBatch copy = decoded.getTransactions();
+        assertEquals(rows.size(), copy.size());
+        assertTrue(Arrays.equals(rows.timestampColumn(), 0, rows.size(), copy.timestampColumn(), 0, copy.size()));
+        assertTrue(Arrays.equals(rows.amountColumn(), 0, rows.size(), copy.amountColumn(), 0, copy.size()));
+        assertTrue(Arrays.equals(rows.ceilingColumn(), 0, rows.size(), copy.ceilingColumn(), 0, copy.size()));
+        assertTrue(Arrays.equals(rows.remanentColumn(), 0, rows.size(), copy.remanentColumn(), 0, copy.size()));
+    }
+
+    @Test
+    void emptyFrameRoundTrips() {
+        TransactionFrame decoded = TransactionFrameCodec.decode(TransactionFrameCodec.encode(new TransactionFrame()));
+        assertEquals(0, decoded.getTransactions().size());
+        assertEquals(List.of(), decoded.getK());
+    }
+
+    @Test
+    void rejectsMalformedFrames() {
+        TransactionFrame frame = new TransactionFrame();
+        TransactionBatch rows = new TransactionBatch();
+        rows.add(BASE, 25_000, 30_000, 5_000);
+        frame.setTransactions(rows);
+        byte[] bytes = TransactionFrameCodec.encode(frame);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionFrameCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionFrameCodec.decode(Arrays.copyOf(bytes, bytes.length + 1)));
+        byte[] badMagic = bytes.clone();
+        badMagic[3] = 2;
+        assertThrows(IllegalArgumentException.class, () -> TransactionFrameCodec.decode(badMagic));
+    }
+
+    private static LocalDateTime date(long epochSecond) {
+        return TransactionBatch.toDate(epochSecond);
+    }
+}
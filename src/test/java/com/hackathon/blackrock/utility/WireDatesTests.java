@@ -0,0 +1,72 @@
+package com.hackathon.blackrock.utility;
+
+import com.hackathon.blackrock.domain.Transaction;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WireDatesTests {
+
+    @Test
+    void matchesFormatterAcrossYears() {
+        Random random = new Random(5);
+        long min = LocalDateTime.of(1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long max = LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+        char[] text = new char[WireDates.LENGTH + 3];
+        for (int i = 0; i < 200_000; i++) {
+            long epochSecond = min + Math.floorMod(random.nextLong(), max - min + 1);
+            LocalDateTime date = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+
+            WireDates.format(date, text, 3);
+            String formatted = new String(text, 3, WireDates.LENGTH);
+            assertEquals(WireDates.FORMATTER.format(date), formatted);
+            assertEquals(date, WireDates.parse(text, 3, WireDates.LENGTH));
+            assertEquals(epochSecond, WireDates.epochSecond(text, 3, WireDates.LENGTH));
+
+            Arrays.fill(text, ' ');
+            WireDates.format(epochSecond, text, 3);
+            assertEquals(formatted, new String(text, 3, WireDates.LENGTH));
+        }
+        assertFalse(WireDates.format(Long.MIN_VALUE, text, 0));
+        assertFalse(WireDates.format(max + 1, text, 0));
+    }
+
+    @Test
+    void leavesIrregularTextToTheFormatter() {
+        for (String text : new String[]{"2023-02-29 10:00:00", "2023-02-30 10:00:00", "2023-13-01 00:00:00",
+                "2023-01-01 24:00:00", "2023-01-01T10:00:00", "2023-1-01 10:00:00", "+2023-01-01 10:00",
+                "2023-01-01 10:00:0x", "2023-01-01 10:00:00 "}) {
+            assertNull(WireDates.parse(text.toCharArray(), 0, text.length()), text);
+            assertEquals(WireDates.INVALID, WireDates.epochSecond(text.toCharArray(), 0, text.length()), text);
+        }
+        String leapDay = "2024-02-29 10:00:00";
+        assertEquals(LocalDateTime.of(2024, 2, 29, 10, 0), WireDates.parse(leapDay.toCharArray(), 0, leapDay.length()));
+    }
+
+    @Test
+    void mapperMatchesJacksonDefaults() {
+        ObjectMapper standard = JsonMapper.builder().build();
+        ObjectMapper fast = JsonMapper.builder().addModule(new WireDateModule()).build();
+
+        for (String date : new String[]{"2023-10-12 20:15:30", "2023-02-30 10:00:00", "0999-01-01 00:00:00"}) {
+            String json = "{\"date\":\"" + date + "\",\"amount\":250.0,\"ceiling\":300.0,\"remanent\":50.0}";
+            Transaction expected = standard.readValue(json, Transaction.class);
+            Transaction actual = fast.readValue(json, Transaction.class);
+            assertEquals(expected, actual, date);
+            assertEquals(standard.writeValueAsString(expected), fast.writeValueAsString(actual), date);
+        }
+        // properties without the wire pattern keep Jackson's ISO format
+        LocalDateTime date = LocalDateTime.of(2023, 10, 12, 20, 15, 30);
+        assertEquals(standard.writeValueAsString(date), fast.writeValueAsString(date));
+        assertEquals(date, fast.readValue("\"2023-10-12T20:15:30\"", LocalDateTime.class));
+    }
+}